@@ -5,6 +5,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import xyz.apex.minecraft.apexcore.common.core.ApexCore;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.ServiceLoader;
 import java.util.function.Supplier;
@@ -74,6 +75,32 @@ public interface Services
         return stream(serviceType).toList();
     }
 
+    /**
+     * Validates that exactly one implementation exists for each of the provided service types.
+     * <p>
+     * Implementations are only located, never instantiated, every problem is reported at once
+     * rather than failing on the first service to be looked up.
+     *
+     * @param serviceTypes Types of singleton services to be validated.
+     */
+    static void validate(Class<?>... serviceTypes)
+    {
+        var problems = new ArrayList<String>();
+
+        for(var serviceType : serviceTypes)
+        {
+            var providers = ServiceLoader.load(serviceType).stream().map(ServiceLoader.Provider::type).map(Class::getName).toList();
+
+            if(providers.isEmpty())
+                problems.add("Missing implementation of %s".formatted(serviceType.getName()));
+            else if(providers.size() > 1)
+                problems.add("Multiple implementations of %s: %s".formatted(serviceType.getName(), String.join(",", providers)));
+        }
+
+        if(!problems.isEmpty())
+            throw new IllegalStateException("Invalid services on the classpath:%n  %s".formatted(String.join("%n  ".formatted(), problems)));
+    }
+
     private static <T> void bootstrap(Class<T> serviceType, ServiceLoader.Provider<T> serviceProvider)
     {
         ApexCore.LOGGER.debug("Instantiating {} for Service {}", serviceProvider.type().getName(), serviceType.getName());
@@ -16,6 +16,7 @@ import org.jetbrains.annotations.MustBeInvokedByOverriders;
 import org.jetbrains.annotations.Nullable;
 import xyz.apex.lib.Services;
 import xyz.apex.minecraft.apexcore.common.lib.PhysicalSide;
+import xyz.apex.minecraft.apexcore.common.lib.component.block.entity.BlockEntitySyncPacket;
 import xyz.apex.minecraft.apexcore.common.lib.component.block.entity.types.BlockEntityComponentTypes;
 import xyz.apex.minecraft.apexcore.common.lib.component.block.types.BlockComponentTypes;
 import xyz.apex.minecraft.apexcore.common.lib.hook.CreativeModeTabHooks;
@@ -55,6 +56,7 @@ public interface ApexCore
         BlockEntityComponentTypes.bootstrap();
         MultiBlockTypes.bootstrap();
         SupportManager.INSTANCE.bootstrap();
+        BlockEntitySyncPacket.bootstrap();
 
         registerGenerators();
 
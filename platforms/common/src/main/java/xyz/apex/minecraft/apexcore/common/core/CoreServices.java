@@ -0,0 +1,44 @@
+package xyz.apex.minecraft.apexcore.common.core;
+
+import org.jetbrains.annotations.ApiStatus;
+import xyz.apex.lib.Services;
+import xyz.apex.minecraft.apexcore.common.lib.hook.*;
+import xyz.apex.minecraft.apexcore.common.lib.modloader.ModLoader;
+
+/**
+ * Validates every service bound into {@link ApexCore} and {@link ApexCoreClient}.
+ * <p>
+ * Services are resolved exactly once into static final fields, which the JIT treats as constants,
+ * allowing hook calls to be inlined. Validation must run before either interface is initialized,
+ * so only class literals may be referenced here.
+ */
+@ApiStatus.Internal
+public final class CoreServices
+{
+    private CoreServices()
+    {
+    }
+
+    public static void validate()
+    {
+        Services.validate(
+                ApexCore.class,
+                ModLoader.class,
+                CreativeModeTabHooks.class,
+                EntityHooks.class,
+                GameRuleHooks.class,
+                MenuHooks.class
+        );
+    }
+
+    public static void validateClient()
+    {
+        Services.validate(
+                ApexCoreClient.class,
+                ColorHandlerHooks.class,
+                RendererHooks.class,
+                GenericHooks.class,
+                ParticleHooks.class
+        );
+    }
+}
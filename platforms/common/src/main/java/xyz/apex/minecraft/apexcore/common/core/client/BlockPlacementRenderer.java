@@ -31,6 +31,7 @@ import xyz.apex.minecraft.apexcore.common.lib.SideOnly;
 import xyz.apex.minecraft.apexcore.common.lib.component.block.BlockComponentHolder;
 import xyz.apex.minecraft.apexcore.common.lib.component.block.types.BlockComponentTypes;
 import xyz.apex.minecraft.apexcore.common.lib.multiblock.MultiBlockComponent;
+import xyz.apex.minecraft.apexcore.common.lib.multiblock.MultiBlockPlacement;
 
 import java.util.OptionalDouble;
 
@@ -154,6 +155,7 @@ public final class BlockPlacementRenderer
         BlockComponentHolder.runAsComponent(blockState, BlockComponentTypes.MULTI_BLOCK, component -> {
             var rendered = false;
             var multiBlockType = component.getMultiBlockType();
+            var facing = MultiBlockComponent.getFacing(blockState);
 
             for(var i = 0; i < multiBlockType.size(); i++)
             {
@@ -162,7 +164,7 @@ public final class BlockPlacementRenderer
                 if(newBlockState.getRenderShape() != RenderShape.MODEL)
                     continue;
 
-                var worldPosition = MultiBlockComponent.worldPosition(multiBlockType, renderPos, newBlockState);
+                var worldPosition = renderPos.offset(multiBlockType.getOffset(i, facing));
                 renderBlock(client, pose, buffer, stackFinal, newBlockState, worldPosition, canBePlaced);
                 rendered = true;
             }
@@ -178,20 +180,8 @@ public final class BlockPlacementRenderer
 
     private boolean canBePlaced(BlockPlaceContext context, BlockPos pos, BlockState blockState)
     {
-        return BlockComponentHolder.mapAsComponent(blockState, MultiBlockComponent.COMPONENT_TYPE, component -> {
-            var multiBlockType = component.getMultiBlockType();
-
-            for(var i = 0; i < multiBlockType.size(); i++)
-            {
-                var newBlockState = MultiBlockComponent.setIndex(multiBlockType, blockState, i);
-                var worldPosition = MultiBlockComponent.worldPosition(multiBlockType, pos, newBlockState);
-
-                if(!MultiBlockComponent.canPlaceAt(context, worldPosition, newBlockState))
-                    return false;
-            }
-
-            return true;
-        }).orElseGet(() -> MultiBlockComponent.canPlaceAt(context, pos, blockState));
+        return BlockComponentHolder.mapAsComponent(blockState, MultiBlockComponent.COMPONENT_TYPE, component -> MultiBlockPlacement.validate(context, component.getMultiBlockType(), pos, blockState).isSuccess())
+                .orElseGet(() -> MultiBlockPlacement.validate(context, pos, blockState).isSuccess());
     }
 
     @SuppressWarnings("DataFlowIssue")
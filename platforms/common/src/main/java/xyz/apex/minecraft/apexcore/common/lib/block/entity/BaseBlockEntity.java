@@ -6,14 +6,21 @@ import net.minecraft.nbt.Tag;
 import net.minecraft.network.protocol.Packet;
 import net.minecraft.network.protocol.game.ClientGamePacketListener;
 import net.minecraft.network.protocol.game.ClientboundBlockEntityDataPacket;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.level.block.state.BlockState;
+import org.jetbrains.annotations.Nullable;
 
 public class BaseBlockEntity extends BlockEntity
 {
     private static final String NBT_NETWORK_MARKER = "__APEX_INTERNAL_NETWORK_MARKER__";
 
+    // game time the last update packet was sent, used to throttle update packets
+    // far enough in the past for the first update to always be sent, without overflowing when subtracted from
+    long lastUpdateTime = Integer.MIN_VALUE;
+
     public BaseBlockEntity(BlockEntityType<?> blockEntityType, BlockPos pos, BlockState blockState)
     {
         super(blockEntityType, pos, blockState);
@@ -27,6 +34,13 @@ public class BaseBlockEntity extends BlockEntity
     {
     }
 
+    // serializes data for update packets, only needs to contain what changed since the last update packet
+    // full data is still sent along with chunk data, defaults to everything
+    protected void serializeUpdateInto(CompoundTag tag)
+    {
+        serializeInto(tag, true);
+    }
+
     @Override
     public final void load(CompoundTag tag)
     {
@@ -58,10 +72,42 @@ public class BaseBlockEntity extends BlockEntity
         super.saveAdditional(tag);
     }
 
+    // sends a custom update packet to every tracking player in place of the vanilla packet
+    // returns true if sent
+    protected boolean sendUpdatePacket()
+    {
+        return false;
+    }
+
+    protected final CompoundTag createUpdateTag()
+    {
+        var tag = new CompoundTag();
+        serializeUpdateInto(tag);
+        // add network marker
+        tag.putBoolean(NBT_NETWORK_MARKER, true);
+        return tag;
+    }
+
+    @Nullable
     @Override
     public final Packet<ClientGamePacketListener> getUpdatePacket()
     {
-        return ClientboundBlockEntityDataPacket.create(this);
+        // held back, sent once the minimum update interval has passed
+        if(level != null && !BlockEntitySyncScheduler.tryUpdate(this, level.getGameTime()))
+            return null;
+        if(sendUpdatePacket())
+            return null;
+
+        return ClientboundBlockEntityDataPacket.create(this, blockEntity -> createUpdateTag());
+    }
+
+    void sendHeldBackUpdate()
+    {
+        if(!(level instanceof ServerLevel serverLevel) || sendUpdatePacket())
+            return;
+
+        var packet = ClientboundBlockEntityDataPacket.create(this, blockEntity -> createUpdateTag());
+        serverLevel.getChunkSource().chunkMap.getPlayers(new ChunkPos(worldPosition), false).forEach(player -> player.connection.send(packet));
     }
 
     @Override
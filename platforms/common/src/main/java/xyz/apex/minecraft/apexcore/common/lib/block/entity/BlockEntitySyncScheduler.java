@@ -0,0 +1,114 @@
+package xyz.apex.minecraft.apexcore.common.lib.block.entity;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceLinkedOpenHashSet;
+import net.minecraft.world.level.block.entity.BlockEntityType;
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * Throttles update packets for block entities with a minimum update interval.
+ * <p>
+ * Vanilla already coalesces every {@code sendBlockUpdated} call within a tick into a single update packet,
+ * updates arriving before the interval has passed are held back and flushed once due at the end of a server tick,
+ * no matter how many further updates were requested in the meantime.
+ */
+@ApiStatus.Internal
+public final class BlockEntitySyncScheduler
+{
+    private static final Object LOCK = new Object();
+    // copy on write, only ever written during registration
+    // a fresh map is published on every write so reads never see a table mid rehash and never lock
+    private static volatile Reference2IntMap<BlockEntityType<?>> minIntervals = new Reference2IntOpenHashMap<>();
+    // held back block entities, deduplicated by identity, flushed in the order they were first held back
+    private static final ReferenceLinkedOpenHashSet<BaseBlockEntity> PENDING = new ReferenceLinkedOpenHashSet<>();
+
+    private BlockEntitySyncScheduler()
+    {
+    }
+
+    /**
+     * Sets the minimum number of ticks between update packets for the given block entity type.
+     *
+     * @param blockEntityType Block entity type to be throttled.
+     * @param ticks           Minimum number of ticks between update packets, 0 to disable throttling.
+     */
+    public static void setMinInterval(BlockEntityType<?> blockEntityType, int ticks)
+    {
+        synchronized(LOCK)
+        {
+            var newIntervals = new Reference2IntOpenHashMap<>(minIntervals);
+
+            if(ticks > 0)
+                newIntervals.put(blockEntityType, ticks);
+            else
+                newIntervals.removeInt(blockEntityType);
+
+            minIntervals = newIntervals;
+        }
+    }
+
+    public static int getMinInterval(BlockEntityType<?> blockEntityType)
+    {
+        return minIntervals.getInt(blockEntityType);
+    }
+
+    // returns true if an update packet may be sent right now, otherwise holds it back until due
+    static boolean tryUpdate(BaseBlockEntity blockEntity, long gameTime)
+    {
+        var minInterval = getMinInterval(blockEntity.getType());
+
+        if(minInterval <= 0)
+            return true;
+
+        if(gameTime - blockEntity.lastUpdateTime >= minInterval)
+        {
+            blockEntity.lastUpdateTime = gameTime;
+            PENDING.remove(blockEntity);
+            return true;
+        }
+
+        PENDING.add(blockEntity);
+        return false;
+    }
+
+    /**
+     * Sends every held back update packet which is now due, invoked at the end of each server tick.
+     */
+    public static void flush()
+    {
+        if(PENDING.isEmpty())
+            return;
+
+        var iterator = PENDING.iterator();
+
+        while(iterator.hasNext())
+        {
+            var blockEntity = iterator.next();
+            var level = blockEntity.getLevel();
+
+            if(blockEntity.isRemoved() || level == null)
+            {
+                iterator.remove();
+                continue;
+            }
+
+            var gameTime = level.getGameTime();
+
+            if(gameTime - blockEntity.lastUpdateTime >= getMinInterval(blockEntity.getType()))
+            {
+                iterator.remove();
+                blockEntity.lastUpdateTime = gameTime;
+                blockEntity.sendHeldBackUpdate();
+            }
+        }
+    }
+
+    /**
+     * Discards every held back update packet, invoked when the server stops.
+     */
+    public static void clear()
+    {
+        PENDING.clear();
+    }
+}
@@ -42,12 +42,18 @@ import java.util.function.Consumer;
 public non-sealed class BaseBlockComponentHolder extends BaseEntityBlock implements BlockComponentHolder
 {
     private final Map<BlockComponentType<?>, BlockComponent> componentRegistry = registerComponents();
+    private final BlockComponentDispatcher dispatcher = new BlockComponentDispatcher(this, componentRegistry.values(), this::canHaveBlockEntity);
 
     // methods tied to these do not have a BlockPos parameter
     // which means we can not easily callback the block entity
-    // not the best solution but this works
-    private final Map<BlockState, Boolean> isSignalSource = Maps.newHashMap();
-    private final Map<BlockState, Boolean> hasAnalogOutputSignal = Maps.newHashMap();
+    // block entity capabilities do not depend on the BlockState, so they are resolved
+    // from the first block entity created and then applied to every state which can have one
+    // newBlockEntity may be invoked off thread during chunk generation, every thread resolves
+    // the same flags so racing writes are harmless and reads never lock or box
+    private static final int BLOCK_ENTITY_RESOLVED = 1;
+    private static final int BLOCK_ENTITY_SIGNAL_SOURCE = 1 << 1;
+    private static final int BLOCK_ENTITY_ANALOG_OUTPUT_SIGNAL = 1 << 2;
+    private volatile int blockEntityFlags = 0;
 
     public BaseBlockComponentHolder(Properties properties)
     {
@@ -177,7 +183,7 @@ public non-sealed class BaseBlockComponentHolder extends BaseEntityBlock impleme
     {
         var placementBlockState = defaultBlockState();
 
-        for(var component : getComponents())
+        for(var component : dispatcher.getStateForPlacement)
         {
             placementBlockState = component.getStateForPlacement(placementBlockState, context);
 
@@ -194,7 +200,11 @@ public non-sealed class BaseBlockComponentHolder extends BaseEntityBlock impleme
         if(blockEntity instanceof BlockEntityComponentHolder blockEntityComponentHolder)
             blockEntityComponentHolder.playerDestroy(level, player, tool);
 
-        getComponents().forEach(component -> component.playerDestroy(level, player, pos, blockState, blockEntity, tool));
+        for(var component : dispatcher.playerDestroy)
+        {
+            component.playerDestroy(level, player, pos, blockState, blockEntity, tool);
+        }
+
         super.playerDestroy(level, player, pos, blockState, blockEntity, tool);
     }
 
@@ -206,7 +216,10 @@ public non-sealed class BaseBlockComponentHolder extends BaseEntityBlock impleme
         if(getBlockEntity(level, pos, blockState) instanceof BlockEntityComponentHolder blockEntityComponentHolder)
             blockEntityComponentHolder.setPlacedBy(level, placer, stack);
 
-        getComponents().forEach(component -> component.setPlacedBy(level, pos, blockState, placer, stack));
+        for(var component : dispatcher.setPlacedBy)
+        {
+            component.setPlacedBy(level, pos, blockState, placer, stack);
+        }
     }
 
     @Override
@@ -215,7 +228,11 @@ public non-sealed class BaseBlockComponentHolder extends BaseEntityBlock impleme
         if(getBlockEntity(level, pos, blockState) instanceof BlockEntityComponentHolder blockEntityComponentHolder)
             blockEntityComponentHolder.playerWillDestroy(level, player);
 
-        getComponents().forEach(component -> component.playerWillDestroy(level, pos, blockState, player));
+        for(var component : dispatcher.playerWillDestroy)
+        {
+            component.playerWillDestroy(level, pos, blockState, player);
+        }
+
         super.playerWillDestroy(level, pos, blockState, player);
     }
 
@@ -224,7 +241,7 @@ public non-sealed class BaseBlockComponentHolder extends BaseEntityBlock impleme
     {
         var newBlockState = blockState;
 
-        for(var component : getComponents())
+        for(var component : dispatcher.updateShape)
         {
             newBlockState = component.updateShape(newBlockState, direction, neighborBlockState, level, currentPos, neighborPos);
         }
@@ -235,7 +252,11 @@ public non-sealed class BaseBlockComponentHolder extends BaseEntityBlock impleme
     @Override
     public void neighborChanged(BlockState blockState, Level level, BlockPos pos, Block block, BlockPos fromPos, boolean isMoving)
     {
-        getComponents().forEach(component -> component.neighborChanged(blockState, level, pos, block, fromPos, isMoving));
+        for(var component : dispatcher.neighborChanged)
+        {
+            component.neighborChanged(blockState, level, pos, block, fromPos, isMoving);
+        }
+
         super.neighborChanged(blockState, level, pos, block, fromPos, isMoving);
     }
 
@@ -243,7 +264,11 @@ public non-sealed class BaseBlockComponentHolder extends BaseEntityBlock impleme
     public void onPlace(BlockState blockState, Level level, BlockPos pos, BlockState oldBlockState, boolean isMoving)
     {
         super.onPlace(blockState, level, pos, oldBlockState, isMoving);
-        getComponents().forEach(component -> component.onPlace(blockState, level, pos, oldBlockState, isMoving));
+
+        for(var component : dispatcher.onPlace)
+        {
+            component.onPlace(blockState, level, pos, oldBlockState, isMoving);
+        }
 
         if(getBlockEntity(level, pos, blockState) instanceof BlockEntityComponentHolder blockEntityComponentHolder)
             blockEntityComponentHolder.onPlace(level, oldBlockState);
@@ -255,7 +280,11 @@ public non-sealed class BaseBlockComponentHolder extends BaseEntityBlock impleme
         if(getBlockEntity(level, pos, blockState) instanceof BlockEntityComponentHolder blockEntityComponentHolder)
             blockEntityComponentHolder.onRemove(level, newBlockState);
 
-        getComponents().forEach(component -> component.onRemove(blockState, level, pos, newBlockState, isMoving));
+        for(var component : dispatcher.onRemove)
+        {
+            component.onRemove(blockState, level, pos, newBlockState, isMoving);
+        }
+
         super.onRemove(blockState, level, pos, newBlockState, isMoving);
     }
 
@@ -270,7 +299,7 @@ public non-sealed class BaseBlockComponentHolder extends BaseEntityBlock impleme
                 return result;
         }
 
-        for(var component : getComponents())
+        for(var component : dispatcher.use)
         {
             var result = component.use(blockState, level, pos, player, hand, hit);
 
@@ -284,29 +313,14 @@ public non-sealed class BaseBlockComponentHolder extends BaseEntityBlock impleme
     @Override
     public RenderShape getRenderShape(BlockState blockState)
     {
-        for(var component : getComponents())
-        {
-            var renderShape = component.getRenderShape(blockState);
-
-            if(renderShape != null)
-                return renderShape;
-        }
-
-        return RenderShape.MODEL; // super gives us INVISIBLE
+        return dispatcher.getRenderShape(blockState);
     }
 
     @Override
     public FluidState getFluidState(BlockState blockState)
     {
-        for(var component : getComponents())
-        {
-            var fluidState = component.getFluidState(blockState);
-
-            if(fluidState != null && !fluidState.isEmpty())
-                return fluidState;
-        }
-
-        return super.getFluidState(blockState);
+        var fluidState = dispatcher.getFluidState(blockState);
+        return fluidState == null ? super.getFluidState(blockState) : fluidState;
     }
 
     @Override
@@ -314,7 +328,7 @@ public non-sealed class BaseBlockComponentHolder extends BaseEntityBlock impleme
     {
         var newBlockState = blockState;
 
-        for(var component : getComponents())
+        for(var component : dispatcher.rotate)
         {
             newBlockState = component.rotate(newBlockState, rotation);
         }
@@ -327,7 +341,7 @@ public non-sealed class BaseBlockComponentHolder extends BaseEntityBlock impleme
     {
         var newBlockState = blockState;
 
-        for(var component : getComponents())
+        for(var component : dispatcher.mirror)
         {
             newBlockState = component.mirror(newBlockState, mirror);
         }
@@ -338,7 +352,7 @@ public non-sealed class BaseBlockComponentHolder extends BaseEntityBlock impleme
     @Override
     public boolean canBeReplaced(BlockState blockState, BlockPlaceContext useContext)
     {
-        for(var component : getComponents())
+        for(var component : dispatcher.canBeReplacedByContext)
         {
             if(!component.canBeReplaced(blockState, useContext))
                 return false;
@@ -350,7 +364,7 @@ public non-sealed class BaseBlockComponentHolder extends BaseEntityBlock impleme
     @Override
     public boolean canBeReplaced(BlockState blockState, Fluid fluid)
     {
-        for(var component : getComponents())
+        for(var component : dispatcher.canBeReplacedByFluid)
         {
             if(!component.canBeReplaced(blockState, fluid))
                 return false;
@@ -362,7 +376,7 @@ public non-sealed class BaseBlockComponentHolder extends BaseEntityBlock impleme
     @Override
     public boolean canSurvive(BlockState blockState, LevelReader level, BlockPos pos)
     {
-        for(var component : getComponents())
+        for(var component : dispatcher.canSurvive)
         {
             if(!component.canSurvive(blockState, level, pos))
                 return false;
@@ -375,9 +389,7 @@ public non-sealed class BaseBlockComponentHolder extends BaseEntityBlock impleme
     @Override
     public final <T extends BlockEntity> BlockEntityTicker<T> getTicker(Level level, BlockState blockState, BlockEntityType<T> blockEntityType)
     {
-        var multiBlockComponent = getComponent(BlockComponentTypes.MULTI_BLOCK);
-
-        if(multiBlockComponent != null && MultiBlockComponent.getIndex(multiBlockComponent.getMultiBlockType(), blockState) != 0)
+        if(!dispatcher.hasBlockEntity(blockState))
             return null;
 
         return blockEntityType == getBlockEntityType() ? getTicker(level, blockState) : null;
@@ -386,23 +398,19 @@ public non-sealed class BaseBlockComponentHolder extends BaseEntityBlock impleme
     @Override
     public boolean isSignalSource(BlockState blockState)
     {
-        var isSignalSource = this.isSignalSource.get(blockState);
-
-        if(isSignalSource != null && isSignalSource)
+        if(dispatcher.isSignalSource(blockState))
             return true;
 
-        return getComponents().stream().anyMatch(component -> component.isSignalSource(blockState));
+        return (blockEntityFlags & BLOCK_ENTITY_SIGNAL_SOURCE) != 0 && dispatcher.hasBlockEntity(blockState);
     }
 
     @Override
     public boolean hasAnalogOutputSignal(BlockState blockState)
     {
-        var hasAnalogOutputSignal = this.hasAnalogOutputSignal.get(blockState);
-
-        if(hasAnalogOutputSignal != null && hasAnalogOutputSignal)
+        if(dispatcher.hasAnalogOutputSignal(blockState))
             return true;
 
-        return getComponents().stream().anyMatch(component -> component.hasAnalogOutputSignal(blockState));
+        return (blockEntityFlags & BLOCK_ENTITY_ANALOG_OUTPUT_SIGNAL) != 0 && dispatcher.hasBlockEntity(blockState);
     }
 
     @Override
@@ -416,7 +424,7 @@ public non-sealed class BaseBlockComponentHolder extends BaseEntityBlock impleme
                 return analogOutputSignal;
         }
 
-        for(var component : getComponents())
+        for(var component : dispatcher.getAnalogOutputSignal)
         {
             var analogOutputSignal = component.getAnalogOutputSignal(blockState, level, pos);
 
@@ -438,7 +446,7 @@ public non-sealed class BaseBlockComponentHolder extends BaseEntityBlock impleme
                 return analogOutputSignal;
         }
 
-        for(var component : getComponents())
+        for(var component : dispatcher.getSignal)
         {
             var analogOutputSignal = component.getSignal(blockState, level, pos, direction);
 
@@ -453,7 +461,7 @@ public non-sealed class BaseBlockComponentHolder extends BaseEntityBlock impleme
     @Override
     public final MenuProvider getMenuProvider(BlockState blockState, Level level, BlockPos pos)
     {
-        for(var component : getComponents())
+        for(var component : dispatcher.getMenuProvider)
         {
             var menuProvider = component.getMenuProvider(blockState, level, pos);
 
@@ -468,40 +476,42 @@ public non-sealed class BaseBlockComponentHolder extends BaseEntityBlock impleme
     @Override
     public final BlockEntity newBlockEntity(BlockPos pos, BlockState blockState)
     {
-        var multiBlockComponent = getComponent(BlockComponentTypes.MULTI_BLOCK);
-
-        if(multiBlockComponent != null)
-        {
-            var multiBlockType = multiBlockComponent.getMultiBlockType();
-
-            if(MultiBlockComponent.getIndex(multiBlockType, blockState) != 0)
-                return null;
-        }
+        if(!dispatcher.hasBlockEntity(blockState))
+            return null;
 
         var blockEntityType = getBlockEntityType();
         var blockEntity = blockEntityType == null ? null : blockEntityType.create(pos, blockState);
 
-        if(blockEntity instanceof BlockEntityComponentHolder blockEntityComponentHolder)
+        if(blockEntityFlags == 0 && blockEntity instanceof BlockEntityComponentHolder blockEntityComponentHolder)
         {
-            isSignalSource.put(blockState, blockEntityComponentHolder.isSignalSource());
-            hasAnalogOutputSignal.put(blockState, blockEntityComponentHolder.hasAnalogOutputSignal());
+            var flags = BLOCK_ENTITY_RESOLVED;
+
+            if(blockEntityComponentHolder.isSignalSource())
+                flags |= BLOCK_ENTITY_SIGNAL_SOURCE;
+            if(blockEntityComponentHolder.hasAnalogOutputSignal())
+                flags |= BLOCK_ENTITY_ANALOG_OUTPUT_SIGNAL;
+
+            blockEntityFlags = flags;
         }
 
         return blockEntity;
     }
 
+    private boolean canHaveBlockEntity(BlockState blockState)
+    {
+        var multiBlockComponent = getComponent(BlockComponentTypes.MULTI_BLOCK);
+        return multiBlockComponent == null || MultiBlockComponent.getIndex(multiBlockComponent.getMultiBlockType(), blockState) == 0;
+    }
+
     @Override
     public final ItemStack pickupBlock(@Nullable Player player, LevelAccessor level, BlockPos pos, BlockState blockState)
     {
-        for(var component : getComponents())
+        for(var pickup : dispatcher.bucketPickups)
         {
-            if(component instanceof BucketPickup pickup)
-            {
-                var bucket = pickup.pickupBlock(player, level, pos, blockState);
+            var bucket = pickup.pickupBlock(player, level, pos, blockState);
 
-                if(!bucket.isEmpty())
-                    return bucket;
-            }
+            if(!bucket.isEmpty())
+                return bucket;
         }
 
         return ItemStack.EMPTY;
@@ -510,15 +520,12 @@ public non-sealed class BaseBlockComponentHolder extends BaseEntityBlock impleme
     @Override
     public final Optional<SoundEvent> getPickupSound()
     {
-        for(var component : getComponents())
+        for(var pickup : dispatcher.bucketPickups)
         {
-            if(component instanceof BucketPickup pickup)
-            {
-                var pickupSound = pickup.getPickupSound();
+            var pickupSound = pickup.getPickupSound();
 
-                if(pickupSound.isPresent())
-                    return pickupSound;
-            }
+            if(pickupSound.isPresent())
+                return pickupSound;
         }
 
         return Optional.empty();
@@ -527,9 +534,9 @@ public non-sealed class BaseBlockComponentHolder extends BaseEntityBlock impleme
     @Override
     public final boolean canPlaceLiquid(@Nullable Player player, BlockGetter level, BlockPos pos, BlockState blockState, Fluid fluid)
     {
-        for(var component : getComponents())
+        for(var container : dispatcher.liquidBlockContainers)
         {
-            if(component instanceof LiquidBlockContainer container && container.canPlaceLiquid(player, level, pos, blockState, fluid))
+            if(container.canPlaceLiquid(player, level, pos, blockState, fluid))
                 return true;
         }
 
@@ -539,9 +546,9 @@ public non-sealed class BaseBlockComponentHolder extends BaseEntityBlock impleme
     @Override
     public final boolean placeLiquid(LevelAccessor level, BlockPos pos, BlockState blockState, FluidState fluidState)
     {
-        for(var component : getComponents())
+        for(var container : dispatcher.liquidBlockContainers)
         {
-            if(component instanceof LiquidBlockContainer container && container.placeLiquid(level, pos, blockState, fluidState))
+            if(container.placeLiquid(level, pos, blockState, fluidState))
                 return true;
         }
 
@@ -105,11 +105,15 @@ public sealed interface BlockComponent permits BaseBlockComponent
     @ForOverride
     InteractionResult use(BlockState blockState, Level level, BlockPos pos, Player player, InteractionHand hand, BlockHitResult hit);
 
+    // resolved once per BlockState after registration
+    // results must only depend on the given BlockState
     @Nullable
     @DoNotCall
     @ForOverride
     RenderShape getRenderShape(BlockState blockState);
 
+    // resolved once per BlockState after registration
+    // results must only depend on the given BlockState
     @Nullable
     @DoNotCall
     @ForOverride
@@ -135,10 +139,14 @@ public sealed interface BlockComponent permits BaseBlockComponent
     @ForOverride
     boolean canSurvive(BlockState blockState, LevelReader level, BlockPos pos);
 
+    // resolved once per BlockState after registration
+    // results must only depend on the given BlockState
     @DoNotCall
     @ForOverride
     boolean isSignalSource(BlockState blockState);
 
+    // resolved once per BlockState after registration
+    // results must only depend on the given BlockState
     @DoNotCall
     @ForOverride
     boolean hasAnalogOutputSignal(BlockState blockState);
@@ -0,0 +1,217 @@
+package xyz.apex.minecraft.apexcore.common.lib.component.block;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.InteractionHand;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.context.BlockPlaceContext;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraft.world.level.LevelReader;
+import net.minecraft.world.level.block.*;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.material.Fluid;
+import net.minecraft.world.level.material.FluidState;
+import net.minecraft.world.phys.BlockHitResult;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.function.Predicate;
+
+// resolved once after component registration
+// each hook only visits the components which actually override it
+// hooks whose result only depends on the BlockState are resolved per state up front
+final class BlockComponentDispatcher
+{
+    final BlockComponent[] getStateForPlacement;
+    final BlockComponent[] playerDestroy;
+    final BlockComponent[] setPlacedBy;
+    final BlockComponent[] playerWillDestroy;
+    final BlockComponent[] updateShape;
+    final BlockComponent[] neighborChanged;
+    final BlockComponent[] onPlace;
+    final BlockComponent[] onRemove;
+    final BlockComponent[] use;
+    final BlockComponent[] rotate;
+    final BlockComponent[] mirror;
+    final BlockComponent[] canBeReplacedByContext;
+    final BlockComponent[] canBeReplacedByFluid;
+    final BlockComponent[] canSurvive;
+    final BlockComponent[] getAnalogOutputSignal;
+    final BlockComponent[] getSignal;
+    final BlockComponent[] getMenuProvider;
+    final BucketPickup[] bucketPickups;
+    final LiquidBlockContainer[] liquidBlockContainers;
+
+    private final BlockComponent[] getRenderShape;
+    private final BlockComponent[] getFluidState;
+    private final BlockComponent[] isSignalSource;
+    private final BlockComponent[] hasAnalogOutputSignal;
+
+    private final Reference2IntMap<BlockState> stateIndices;
+    private final RenderShape[] renderShapes;
+    private final FluidState[] fluidStates;
+    private final BitSet signalSources;
+    private final BitSet analogOutputSignals;
+    private final BitSet blockEntityStates;
+
+    BlockComponentDispatcher(Block block, Collection<BlockComponent> components, Predicate<BlockState> hasBlockEntity)
+    {
+        getStateForPlacement = overriding(components, "getStateForPlacement", BlockState.class, BlockPlaceContext.class);
+        playerDestroy = overriding(components, "playerDestroy", Level.class, Player.class, BlockPos.class, BlockState.class, BlockEntity.class, ItemStack.class);
+        setPlacedBy = overriding(components, "setPlacedBy", Level.class, BlockPos.class, BlockState.class, LivingEntity.class, ItemStack.class);
+        playerWillDestroy = overriding(components, "playerWillDestroy", Level.class, BlockPos.class, BlockState.class, Player.class);
+        updateShape = overriding(components, "updateShape", BlockState.class, Direction.class, BlockState.class, LevelAccessor.class, BlockPos.class, BlockPos.class);
+        neighborChanged = overriding(components, "neighborChanged", BlockState.class, Level.class, BlockPos.class, Block.class, BlockPos.class, boolean.class);
+        onPlace = overriding(components, "onPlace", BlockState.class, Level.class, BlockPos.class, BlockState.class, boolean.class);
+        onRemove = overriding(components, "onRemove", BlockState.class, Level.class, BlockPos.class, BlockState.class, boolean.class);
+        use = overriding(components, "use", BlockState.class, Level.class, BlockPos.class, Player.class, InteractionHand.class, BlockHitResult.class);
+        rotate = overriding(components, "rotate", BlockState.class, Rotation.class);
+        mirror = overriding(components, "mirror", BlockState.class, Mirror.class);
+        canBeReplacedByContext = overriding(components, "canBeReplaced", BlockState.class, BlockPlaceContext.class);
+        canBeReplacedByFluid = overriding(components, "canBeReplaced", BlockState.class, Fluid.class);
+        canSurvive = overriding(components, "canSurvive", BlockState.class, LevelReader.class, BlockPos.class);
+        isSignalSource = overriding(components, "isSignalSource", BlockState.class);
+        hasAnalogOutputSignal = overriding(components, "hasAnalogOutputSignal", BlockState.class);
+        getAnalogOutputSignal = overriding(components, "getAnalogOutputSignal", BlockState.class, Level.class, BlockPos.class);
+        getSignal = overriding(components, "getSignal", BlockState.class, BlockGetter.class, BlockPos.class, Direction.class);
+        getMenuProvider = overriding(components, "getMenuProvider", BlockState.class, Level.class, BlockPos.class);
+        getRenderShape = overriding(components, "getRenderShape", BlockState.class);
+        getFluidState = overriding(components, "getFluidState", BlockState.class);
+        bucketPickups = components.stream().filter(BucketPickup.class::isInstance).map(BucketPickup.class::cast).toArray(BucketPickup[]::new);
+        liquidBlockContainers = components.stream().filter(LiquidBlockContainer.class::isInstance).map(LiquidBlockContainer.class::cast).toArray(LiquidBlockContainer[]::new);
+
+        var possibleStates = block.getStateDefinition().getPossibleStates();
+        var stateCount = possibleStates.size();
+
+        stateIndices = new Reference2IntOpenHashMap<>(stateCount);
+        stateIndices.defaultReturnValue(-1);
+        renderShapes = new RenderShape[stateCount];
+        fluidStates = new FluidState[stateCount];
+        signalSources = new BitSet(stateCount);
+        analogOutputSignals = new BitSet(stateCount);
+        blockEntityStates = new BitSet(stateCount);
+
+        for(var i = 0; i < stateCount; i++)
+        {
+            var blockState = possibleStates.get(i);
+            stateIndices.put(blockState, i);
+            renderShapes[i] = resolveRenderShape(blockState);
+            fluidStates[i] = resolveFluidState(blockState);
+            signalSources.set(i, resolveSignalSource(blockState));
+            analogOutputSignals.set(i, resolveAnalogOutputSignal(blockState));
+            blockEntityStates.set(i, hasBlockEntity.test(blockState));
+        }
+    }
+
+    int stateIndex(BlockState blockState)
+    {
+        return stateIndices.getInt(blockState);
+    }
+
+    RenderShape getRenderShape(BlockState blockState)
+    {
+        var index = stateIndex(blockState);
+        return index == -1 ? resolveRenderShape(blockState) : renderShapes[index];
+    }
+
+    @Nullable
+    FluidState getFluidState(BlockState blockState)
+    {
+        var index = stateIndex(blockState);
+        return index == -1 ? resolveFluidState(blockState) : fluidStates[index];
+    }
+
+    boolean isSignalSource(BlockState blockState)
+    {
+        var index = stateIndex(blockState);
+        return index == -1 ? resolveSignalSource(blockState) : signalSources.get(index);
+    }
+
+    boolean hasAnalogOutputSignal(BlockState blockState)
+    {
+        var index = stateIndex(blockState);
+        return index == -1 ? resolveAnalogOutputSignal(blockState) : analogOutputSignals.get(index);
+    }
+
+    boolean hasBlockEntity(BlockState blockState)
+    {
+        var index = stateIndex(blockState);
+        return index != -1 && blockEntityStates.get(index);
+    }
+
+    private RenderShape resolveRenderShape(BlockState blockState)
+    {
+        for(var component : getRenderShape)
+        {
+            var renderShape = component.getRenderShape(blockState);
+
+            if(renderShape != null)
+                return renderShape;
+        }
+
+        return RenderShape.MODEL; // super gives us INVISIBLE
+    }
+
+    @Nullable
+    private FluidState resolveFluidState(BlockState blockState)
+    {
+        for(var component : getFluidState)
+        {
+            var fluidState = component.getFluidState(blockState);
+
+            if(fluidState != null && !fluidState.isEmpty())
+                return fluidState;
+        }
+
+        return null;
+    }
+
+    private boolean resolveSignalSource(BlockState blockState)
+    {
+        for(var component : isSignalSource)
+        {
+            if(component.isSignalSource(blockState))
+                return true;
+        }
+
+        return false;
+    }
+
+    private boolean resolveAnalogOutputSignal(BlockState blockState)
+    {
+        for(var component : hasAnalogOutputSignal)
+        {
+            if(component.hasAnalogOutputSignal(blockState))
+                return true;
+        }
+
+        return false;
+    }
+
+    private static BlockComponent[] overriding(Collection<BlockComponent> components, String methodName, Class<?>... parameterTypes)
+    {
+        return components.stream().filter(component -> overrides(component, methodName, parameterTypes)).toArray(BlockComponent[]::new);
+    }
+
+    private static boolean overrides(BlockComponent component, String methodName, Class<?>... parameterTypes)
+    {
+        try
+        {
+            return component.getClass().getMethod(methodName, parameterTypes).getDeclaringClass() != BaseBlockComponent.class;
+        }
+        catch(NoSuchMethodException e)
+        {
+            // should never happen, every hook is declared by BlockComponent
+            // but if it does, always dispatch to the component rather than silently skipping it
+            return true;
+        }
+    }
+}
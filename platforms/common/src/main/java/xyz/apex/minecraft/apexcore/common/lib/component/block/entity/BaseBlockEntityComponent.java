@@ -18,6 +18,7 @@ import org.jetbrains.annotations.Nullable;
 import xyz.apex.minecraft.apexcore.common.lib.helper.InteractionResultHelper;
 
 import java.util.Collection;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 
@@ -25,6 +26,7 @@ public non-sealed class BaseBlockEntityComponent implements BlockEntityComponent
 {
     protected final BlockEntityComponentHolder componentHolder;
     private boolean registered = false;
+    @Nullable private BlockEntityComponentType<?> componentType = null;
 
     protected BaseBlockEntityComponent(BlockEntityComponentHolder componentHolder)
     {
@@ -34,11 +36,18 @@ public non-sealed class BaseBlockEntityComponent implements BlockEntityComponent
     // region: Components
     @DoNotCall
     @ApiStatus.Internal
-    void postRegistration()
+    void postRegistration(BlockEntityComponentType<?> componentType)
     {
+        this.componentType = componentType;
         registered = true;
     }
 
+    @ApiStatus.Internal
+    int componentIndex()
+    {
+        return Objects.requireNonNull(componentType).index();
+    }
+
     @Nullable
     @Override
     public final <C extends BlockEntityComponent> C getComponent(BlockEntityComponentType<C> componentType)
@@ -95,10 +104,22 @@ public non-sealed class BaseBlockEntityComponent implements BlockEntityComponent
     // endregion
 
     // region: Helpers
+    // only this component needs to be sent in the next update packet
     @Override
     public final void setChanged()
     {
-        getGameObject().setChanged();
+        // still being registered, block entity can not have been added to a level yet
+        if(registered)
+            ((BaseBlockEntityComponentHolder) componentHolder).setChanged(this);
+    }
+
+    // sends this component in the next update packet, without marking the block entity as changed
+    @Override
+    public final void markForSync()
+    {
+        // everything is synced until the first update packet
+        if(registered)
+            ((BaseBlockEntityComponentHolder) componentHolder).markForSync(this);
     }
     // endregion
 
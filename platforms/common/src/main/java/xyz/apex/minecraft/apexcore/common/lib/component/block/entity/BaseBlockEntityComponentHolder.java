@@ -7,11 +7,14 @@ import com.google.common.collect.Multimap;
 import com.google.errorprone.annotations.DoNotCall;
 import com.google.errorprone.annotations.ForOverride;
 import com.google.errorprone.annotations.OverridingMethodsMustInvokeSuper;
+import io.netty.buffer.Unpooled;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.Tag;
+import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.Container;
 import net.minecraft.world.InteractionHand;
 import net.minecraft.world.InteractionResult;
@@ -30,6 +33,7 @@ import net.minecraft.world.phys.BlockHitResult;
 import org.jetbrains.annotations.Nullable;
 import xyz.apex.minecraft.apexcore.common.lib.block.entity.BaseBlockEntity;
 import xyz.apex.minecraft.apexcore.common.lib.component.block.entity.types.BlockEntityComponentTypes;
+import xyz.apex.minecraft.apexcore.common.lib.component.block.entity.types.LockCodeBlockEntityComponent;
 import xyz.apex.minecraft.apexcore.common.lib.component.block.entity.types.LootTableBlockEntityComponent;
 import xyz.apex.minecraft.apexcore.common.lib.component.block.entity.types.NameableBlockEntityComponent;
 import xyz.apex.minecraft.apexcore.common.lib.container.CompositeContainer;
@@ -38,19 +42,46 @@ import xyz.apex.minecraft.apexcore.common.lib.helper.InteractionResultHelper;
 import java.util.*;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
+import java.util.stream.IntStream;
 
 public non-sealed class BaseBlockEntityComponentHolder extends BaseBlockEntity implements BlockEntityComponentHolder
 {
-    private static final String NBT_COMPONENTS = "Components";
+    // components are stored flat under a short key
+    // keyed by BlockEntityComponentType.serializedKey() on disk and by position within the holder on the network
+    private static final String NBT_COMPONENTS = "Cmp";
+    // legacy schema, keyed by full registry name, still read and migrated on next save
+    private static final String NBT_COMPONENTS_LEGACY = "Components";
+    private static final String[] NETWORK_KEYS = IntStream.range(0, 32).mapToObj(Integer::toString).toArray(String[]::new);
 
     private final Map<BlockEntityComponentType<?>, BlockEntityComponent> componentRegistry = registerComponents();
+    // components indexed by BlockEntityComponentType.index(), null for missing components
+    private final BlockEntityComponent[] componentSlots = indexComponents(componentRegistry);
+    // component types sorted by registry name, positions are identical on both sides and used as network keys
+    private final BlockEntityComponentType<?>[] sortedComponentTypes = componentRegistry.keySet().stream().sorted(Comparator.comparing(BlockEntityComponentType::registryName)).toArray(BlockEntityComponentType[]::new);
+    // commonly queried components, resolved once
+    @Nullable private final NameableBlockEntityComponent nameableComponent = getComponent(BlockEntityComponentTypes.NAMEABLE);
+    @Nullable private final LockCodeBlockEntityComponent lockCodeComponent = getComponent(BlockEntityComponentTypes.LOCK_CODE);
+    @Nullable private final LootTableBlockEntityComponent lootTableComponent = getComponent(BlockEntityComponentTypes.LOOT_TABLE);
     private final CompositeContainer compositeContainer;
+    private final BaseContainerBlockEntityComponent<?>[] indexedContainers;
+    // single field check for container accessors, loot has already been generated for almost every block
+    private boolean lootTablePending = false;
+    // components to be sent in the next update packet, indexed by BlockEntityComponentType.index()
+    private final BitSet componentsToSync = new BitSet();
+    // set by changes not attributed to a single component, everything is sent in the next update packet
+    private boolean syncAllComponents = true;
+    private boolean serializingUpdate = false;
+    private final int networkSerializableCount;
+    // set while building a custom update packet, network serializable components are written separately
+    private boolean serializingNetworkUpdate = false;
 
     public BaseBlockEntityComponentHolder(BlockEntityType<? extends BaseBlockEntityComponentHolder> blockEntityType, BlockPos pos, BlockState blockState)
     {
         super(blockEntityType, pos, blockState);
 
         compositeContainer = new CompositeContainer(getComponents().stream().filter(Container.class::isInstance).map(Container.class::cast).toArray(Container[]::new));
+        indexedContainers = getComponents().stream().filter(BaseContainerBlockEntityComponent.class::isInstance).map(BaseContainerBlockEntityComponent.class::cast).toArray(BaseContainerBlockEntityComponent[]::new);
+        networkSerializableCount = (int) getComponents().stream().filter(NetworkSerializableComponent.class::isInstance).count();
     }
 
     // region: Components
@@ -82,20 +113,34 @@ public non-sealed class BaseBlockEntityComponentHolder extends BaseBlockEntity i
         {
             var component = componentType.newInstance(this);
             registrar.listeners.get(componentType).forEach(listener -> listener.accept(component));
-            ((BaseBlockEntityComponent) component).postRegistration();
+            ((BaseBlockEntityComponent) component).postRegistration(componentType);
             map.put(componentType, component);
         }
 
         return ImmutableMap.copyOf(map);
     }
 
+    private static BlockEntityComponent[] indexComponents(Map<BlockEntityComponentType<?>, BlockEntityComponent> componentRegistry)
+    {
+        var slotCount = 0;
+
+        for(var componentType : componentRegistry.keySet())
+        {
+            slotCount = Math.max(slotCount, componentType.index() + 1);
+        }
+
+        var componentSlots = new BlockEntityComponent[slotCount];
+        componentRegistry.forEach((componentType, component) -> componentSlots[componentType.index()] = component);
+        return componentSlots;
+    }
+
     @SuppressWarnings("unchecked")
     @Nullable
     @Override
     public final <C extends BlockEntityComponent> C getComponent(BlockEntityComponentType<C> componentType)
     {
-        var component = componentRegistry.get(componentType);
-        return component == null ? null : (C) component;
+        var index = componentType.index();
+        return index < componentSlots.length ? (C) componentSlots[index] : null;
     }
 
     @Override
@@ -113,7 +158,8 @@ public non-sealed class BaseBlockEntityComponentHolder extends BaseBlockEntity i
     @Override
     public final boolean hasComponent(BlockEntityComponentType<?> componentType)
     {
-        return componentRegistry.containsKey(componentType);
+        var index = componentType.index();
+        return index < componentSlots.length && componentSlots[index] != null;
     }
 
     @Override
@@ -133,6 +179,24 @@ public non-sealed class BaseBlockEntityComponentHolder extends BaseBlockEntity i
     {
         return this;
     }
+
+    @Override
+    public final void setLootTablePending(boolean lootTablePending)
+    {
+        this.lootTablePending = lootTablePending;
+    }
+
+    @Override
+    public final boolean hasPendingLootTable()
+    {
+        return lootTablePending;
+    }
+
+    private void unpackLootTable(@Nullable Player player)
+    {
+        if(lootTablePending && lootTableComponent != null)
+            lootTableComponent.unpackLootTable(player);
+    }
     // endregion
 
     // region: Events
@@ -144,18 +208,126 @@ public non-sealed class BaseBlockEntityComponentHolder extends BaseBlockEntity i
         // serialize components after inheritors
         // we dont want them to mess with the data
         var componentsTag = new CompoundTag();
+        var partialUpdate = serializingUpdate && !syncAllComponents;
+
+        for(var i = 0; i < sortedComponentTypes.length; i++)
+        {
+            var componentType = sortedComponentTypes[i];
+            var component = componentSlots[componentType.index()];
+
+            if(partialUpdate && !componentsToSync.get(componentType.index()))
+                continue;
+            // written separately, straight to the packet buffer
+            if(serializingNetworkUpdate && component instanceof NetworkSerializableComponent)
+                continue;
 
-        componentRegistry.forEach((componentType, component) -> {
             var componentTag = new CompoundTag();
             component.serializeInto(componentTag, forNetwork);
 
-            if(!componentTag.isEmpty())
-                componentsTag.put(componentType.registryName().toString(), componentTag);
-        });
+            // changed components must always be sent, even if empty, otherwise the client would keep its stale data
+            if(!componentTag.isEmpty() || partialUpdate)
+                componentsTag.put(forNetwork ? networkKey(i) : componentType.serializedKey(), componentTag);
+        }
 
         tag.put(NBT_COMPONENTS, componentsTag);
     }
 
+    @Override
+    protected boolean sendUpdatePacket()
+    {
+        if(networkSerializableCount == 0 || !(level instanceof ServerLevel serverLevel))
+            return false;
+
+        var partialUpdate = !syncAllComponents;
+        var components = new FriendlyByteBuf(Unpooled.buffer());
+        var countIndex = components.writerIndex();
+        components.writeInt(0);
+        var count = 0;
+
+        // must be written before the tag is created, creating the tag resets the components to sync
+        for(var i = 0; i < sortedComponentTypes.length; i++)
+        {
+            var componentType = sortedComponentTypes[i];
+
+            if(partialUpdate && !componentsToSync.get(componentType.index()))
+                continue;
+
+            if(componentSlots[componentType.index()] instanceof NetworkSerializableComponent component)
+            {
+                components.writeVarInt(i);
+                component.writeToNetwork(components);
+                count++;
+            }
+        }
+
+        components.setInt(countIndex, count);
+        serializingNetworkUpdate = true;
+
+        try
+        {
+            var packet = new BlockEntitySyncPacket(worldPosition, createUpdateTag(), components);
+            BlockEntitySyncPacket.PACKET.sendToClientsTracking(serverLevel.getChunkAt(worldPosition), packet);
+        }
+        finally
+        {
+            serializingNetworkUpdate = false;
+        }
+
+        return true;
+    }
+
+    void readUpdatePacket(CompoundTag tag, FriendlyByteBuf components)
+    {
+        load(tag);
+
+        var count = components.readInt();
+
+        for(var i = 0; i < count; i++)
+        {
+            var position = components.readVarInt();
+
+            if(position < 0 || position >= sortedComponentTypes.length)
+                throw new IllegalStateException("Received unknown component position: '%d'".formatted(position));
+
+            var componentType = sortedComponentTypes[position];
+
+            if(!(componentSlots[componentType.index()] instanceof NetworkSerializableComponent component))
+                throw new IllegalStateException("Received network data for component without network codec: '%s'".formatted(componentType.registryName()));
+
+            component.readFromNetwork(components);
+        }
+    }
+
+    private void deserializeComponent(CompoundTag componentsTag, String key, BlockEntityComponentType<?> componentType, boolean fromNetwork)
+    {
+        if(componentsTag.contains(key, Tag.TAG_COMPOUND))
+            componentSlots[componentType.index()].deserializeFrom(componentsTag.getCompound(key), fromNetwork);
+    }
+
+    private static String networkKey(int position)
+    {
+        return position < NETWORK_KEYS.length ? NETWORK_KEYS[position] : Integer.toString(position);
+    }
+
+    @Override
+    protected void serializeUpdateInto(CompoundTag tag)
+    {
+        // update packets are built once per flush and broadcast to every tracking player
+        // components missing from the tag are left untouched when deserialized on the client
+        serializingUpdate = true;
+
+        try
+        {
+            super.serializeUpdateInto(tag);
+        }
+        finally
+        {
+            serializingUpdate = false;
+            syncAllComponents = false;
+            componentsToSync.clear();
+        }
+    }
+
     @Override
     protected void deserializeFrom(CompoundTag tag, boolean fromNetwork)
     {
@@ -165,20 +337,27 @@ public non-sealed class BaseBlockEntityComponentHolder extends BaseBlockEntity i
         {
             var componentsTag = tag.getCompound(NBT_COMPONENTS);
 
-            componentRegistry.forEach((componentType, component) -> {
-                var key = componentType.registryName().toString();
+            for(var i = 0; i < sortedComponentTypes.length; i++)
+            {
+                var componentType = sortedComponentTypes[i];
+                deserializeComponent(componentsTag, fromNetwork ? networkKey(i) : componentType.serializedKey(), componentType, fromNetwork);
+            }
+        }
+        else if(tag.contains(NBT_COMPONENTS_LEGACY, Tag.TAG_COMPOUND))
+        {
+            var componentsTag = tag.getCompound(NBT_COMPONENTS_LEGACY);
 
-                if(componentsTag.contains(key, Tag.TAG_COMPOUND))
-                {
-                    var componentTag = componentsTag.getCompound(key);
-                    component.deserializeFrom(componentTag, fromNetwork);
-                }
-            });
+            for(var componentType : sortedComponentTypes)
+            {
+                deserializeComponent(componentsTag, componentType.registryName().toString(), componentType, fromNetwork);
+            }
         }
 
         // should not be visible to inheritors
         if(tag.contains(NBT_COMPONENTS))
             tag.remove(NBT_COMPONENTS);
+        if(tag.contains(NBT_COMPONENTS_LEGACY))
+            tag.remove(NBT_COMPONENTS_LEGACY);
 
         super.deserializeFrom(tag, fromNetwork);
     }
@@ -195,6 +374,56 @@ public non-sealed class BaseBlockEntityComponentHolder extends BaseBlockEntity i
         return super.triggerEvent(id, type);
     }
 
+    @Override
+    public void setChanged()
+    {
+        // not attributed to any component, all of them must be synced
+        syncAllComponents = true;
+        setChangedInvalidating();
+    }
+
+    // used by components marking only themselves as changed
+    void setChanged(BaseBlockEntityComponent component)
+    {
+        markForSync(component);
+        setChangedInvalidating();
+    }
+
+    // used by container components which have already updated their own item index
+    void setChangedIndexed(BaseBlockEntityComponent component)
+    {
+        markForSync(component);
+        super.setChanged();
+    }
+
+    void markForSync(BaseBlockEntityComponent component)
+    {
+        componentsToSync.set(component.componentIndex());
+    }
+
+    private void setChangedInvalidating()
+    {
+        super.setChanged();
+
+        // stacks handed out may have been mutated in place before being marked as changed
+        // container item indices must re-index those slots
+        for(var container : indexedContainers)
+        {
+            container.refreshItemIndex();
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    @Override
+    public void setBlockState(BlockState blockState)
+    {
+        super.setBlockState(blockState);
+
+        // face mappings may depend on the block state (facing etc)
+        // cached per face slots must be resolved again
+        compositeContainer.invalidateSlotsForFace();
+    }
+
     // region: Block Wrappers
     @Override
     public void playerDestroy(Level level, Player player, ItemStack tool)
@@ -284,28 +513,28 @@ public non-sealed class BaseBlockEntityComponentHolder extends BaseBlockEntity i
     @Override
     public final boolean hasCustomName()
     {
-        return findComponent(BlockEntityComponentTypes.NAMEABLE).map(NameableBlockEntityComponent::hasCustomName).orElse(false);
+        return nameableComponent != null && nameableComponent.hasCustomName();
     }
 
     @DoNotCall("Implemented on a per Component basis. Prefer calling Component implementations where possible.")
     @Override
     public final Component getDisplayName()
     {
-        return findComponent(BlockEntityComponentTypes.NAMEABLE).map(NameableBlockEntityComponent::getDisplayName).orElseGet(this::getDefaultName);
+        return nameableComponent == null ? getDefaultName() : nameableComponent.getDisplayName();
     }
 
     @DoNotCall("Implemented on a per Component basis. Prefer calling Component implementations where possible.")
     @Override
     public final Component getCustomName()
     {
-        return findComponent(BlockEntityComponentTypes.NAMEABLE).map(NameableBlockEntityComponent::getCustomName).orElse(null);
+        return nameableComponent == null ? null : nameableComponent.getCustomName();
     }
 
     @DoNotCall("Implemented on a per Component basis. Prefer calling Component implementations where possible.")
     @Override
     public final Component getName()
     {
-        return findComponent(BlockEntityComponentTypes.NAMEABLE).map(NameableBlockEntityComponent::getName).orElseGet(this::getDefaultName);
+        return nameableComponent == null ? getDefaultName() : nameableComponent.getName();
     }
     // endregion
 
@@ -377,7 +606,7 @@ public non-sealed class BaseBlockEntityComponentHolder extends BaseBlockEntity i
     @Override
     public final boolean isEmpty()
     {
-        LootTableBlockEntityComponent.unpackLootTable(this, null);
+        unpackLootTable(null);
         return compositeContainer.isEmpty();
     }
 
@@ -385,7 +614,7 @@ public non-sealed class BaseBlockEntityComponentHolder extends BaseBlockEntity i
     @Override
     public final ItemStack getItem(int slot)
     {
-        LootTableBlockEntityComponent.unpackLootTable(this, null);
+        unpackLootTable(null);
         return compositeContainer.getItem(slot);
     }
 
@@ -393,7 +622,7 @@ public non-sealed class BaseBlockEntityComponentHolder extends BaseBlockEntity i
     @Override
     public final ItemStack removeItem(int slot, int amount)
     {
-        LootTableBlockEntityComponent.unpackLootTable(this, null);
+        unpackLootTable(null);
         return compositeContainer.removeItem(slot, amount);
     }
 
@@ -401,7 +630,7 @@ public non-sealed class BaseBlockEntityComponentHolder extends BaseBlockEntity i
     @Override
     public final ItemStack removeItemNoUpdate(int slot)
     {
-        LootTableBlockEntityComponent.unpackLootTable(this, null);
+        unpackLootTable(null);
         return compositeContainer.removeItemNoUpdate(slot);
     }
 
@@ -409,7 +638,7 @@ public non-sealed class BaseBlockEntityComponentHolder extends BaseBlockEntity i
     @Override
     public final void setItem(int slot, ItemStack stack)
     {
-        LootTableBlockEntityComponent.unpackLootTable(this, null);
+        unpackLootTable(null);
         compositeContainer.setItem(slot, stack);
     }
 
@@ -481,12 +710,10 @@ public non-sealed class BaseBlockEntityComponentHolder extends BaseBlockEntity i
     @Override
     public final AbstractContainerMenu createMenu(int windowId, Inventory playerInventory, Player player)
     {
-        var lockCodeComponent = getComponent(BlockEntityComponentTypes.LOCK_CODE);
-
         if(lockCodeComponent != null && !lockCodeComponent.canUnlock(player))
             return null;
 
-        LootTableBlockEntityComponent.unpackLootTable(this, player);
+        unpackLootTable(player);
         return createMenu(windowId, playerInventory);
     }
 
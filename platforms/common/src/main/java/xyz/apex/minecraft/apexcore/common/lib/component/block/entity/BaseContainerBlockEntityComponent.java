@@ -3,28 +3,46 @@ package xyz.apex.minecraft.apexcore.common.lib.component.block.entity;
 import net.minecraft.core.Direction;
 import net.minecraft.core.NonNullList;
 import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
 import net.minecraft.world.Container;
 import net.minecraft.world.ContainerHelper;
 import net.minecraft.world.Containers;
 import net.minecraft.world.WorldlyContainer;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.inventory.ContainerData;
+import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.state.BlockState;
 import org.apache.commons.lang3.Validate;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.MustBeInvokedByOverriders;
 import org.jetbrains.annotations.Nullable;
+import xyz.apex.minecraft.apexcore.common.lib.container.ContainerItemIndex;
 import xyz.apex.minecraft.apexcore.common.lib.container.EmptyContainer;
 
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.IntStream;
 
 public class BaseContainerBlockEntityComponent<T extends BaseContainerBlockEntityComponent<T>> extends BaseBlockEntityComponent implements WorldlyContainer, ContainerData, Iterable<ItemStack>
 {
+    private static final String NBT_ITEMS = "Items";
+
     private int slotCount = 0;
     @Nullable private NonNullList<ItemStack> items;
+    @Nullable private List<ItemStack> itemsView;
+    // slots whose stacks have been handed out and may be mutated in place
+    @Nullable private BitSet exposedSlots;
     @Nullable private int[] defaultSlotsForSide;
+    @Nullable private ContainerItemIndex itemIndex;
+    // raw items read from disk, only decoded once the items are first accessed
+    @Nullable private ListTag pendingItems;
 
     protected BaseContainerBlockEntityComponent(BlockEntityComponentHolder componentHolder)
     {
@@ -39,19 +57,100 @@ public class BaseContainerBlockEntityComponent<T extends BaseContainerBlockEntit
         if(items != null)
             items.clear();
 
+        pendingItems = null;
+
         items = NonNullList.withSize(slotCount, ItemStack.EMPTY);
+        itemsView = Collections.unmodifiableList(items);
+        exposedSlots = new BitSet(slotCount);
         defaultSlotsForSide = IntStream.range(0, slotCount).toArray();
+        itemIndex = new ContainerItemIndex(items);
 
         this.slotCount = slotCount;
         return (T) this;
     }
 
-    public final NonNullList<ItemStack> getItems()
+    /**
+     * Returns an unmodifiable view of the items stored within this container.
+     * <p>
+     * Slots must be mutated through {@link #setItem(int, ItemStack)} or {@link #removeItem(int, int)},
+     * stacks mutated in place must be followed by {@link #setChanged()}.
+     *
+     * @return Unmodifiable view of the items stored within this container.
+     */
+    public final List<ItemStack> getItems()
+    {
+        items();
+        exposeAllSlots();
+        return Objects.requireNonNull(itemsView);
+    }
+
+    private NonNullList<ItemStack> items()
     {
         Validate.notNull(items, "Items list is null! Did you register to set slot count using `.withSlotCount`?");
+        hydrateItems();
         return items;
     }
 
+    private ContainerItemIndex getItemIndex()
+    {
+        Validate.notNull(itemIndex, "Item index is null! Did you register to set slot count using `.withSlotCount`?");
+        hydrateItems();
+        return itemIndex;
+    }
+
+    // decodes items deferred from the last disk load
+    // must be invoked before the items list or item index are touched
+    private void hydrateItems()
+    {
+        if(pendingItems == null || items == null)
+            return;
+
+        var tag = new CompoundTag();
+        tag.put(NBT_ITEMS, pendingItems);
+        pendingItems = null;
+
+        items.clear();
+        ContainerHelper.loadAllItems(tag, items);
+
+        if(itemIndex != null)
+            itemIndex.invalidate();
+    }
+
+    private void exposeSlot(int slot)
+    {
+        if(exposedSlots != null)
+            exposedSlots.set(slot);
+    }
+
+    private void exposeAllSlots()
+    {
+        if(exposedSlots != null)
+            exposedSlots.set(0, slotCount);
+    }
+
+    // stacks handed out may have been mutated in place before the holder was marked as changed
+    // only those slots are re-indexed, rather than rebuilding the whole index
+    @ApiStatus.Internal
+    void refreshItemIndex()
+    {
+        if(itemIndex == null || exposedSlots == null || exposedSlots.isEmpty())
+            return;
+
+        for(var slot = exposedSlots.nextSetBit(0); slot >= 0; slot = exposedSlots.nextSetBit(slot + 1))
+        {
+            itemIndex.update(slot);
+        }
+
+        exposedSlots.clear();
+    }
+
+    // our own mutations have already been reported to the item index
+    // notify the holder without invalidating any item indices
+    private void setChangedIndexed()
+    {
+        ((BaseBlockEntityComponentHolder) componentHolder).setChangedIndexed(this);
+    }
+
     protected void onRemoved(Level level, BlockState newBlockState)
     {
     }
@@ -60,16 +159,33 @@ public class BaseContainerBlockEntityComponent<T extends BaseContainerBlockEntit
     @Override
     public void serializeInto(CompoundTag tag, boolean forNetwork)
     {
-        ContainerHelper.saveAllItems(tag, getItems());
+        // items never accessed since being loaded are saved back untouched
+        // copied so that anything mutating the saved tag can not alter our not yet decoded items
+        // network data is always encoded from the decoded items
+        if(!forNetwork && pendingItems != null)
+            tag.put(NBT_ITEMS, pendingItems.copy());
+        else
+            ContainerHelper.saveAllItems(tag, items());
     }
 
     @MustBeInvokedByOverriders
     @Override
     public void deserializeFrom(CompoundTag tag, boolean fromNetwork)
     {
-        var items = getItems();
+        // decoding item stacks is by far the most expensive part of loading a container
+        // defer it for disk loads, most loaded containers are never opened or queried
+        if(!fromNetwork)
+        {
+            Validate.notNull(items, "Items list is null! Did you register to set slot count using `.withSlotCount`?");
+            pendingItems = tag.getList(NBT_ITEMS, Tag.TAG_COMPOUND);
+            return;
+        }
+
+        pendingItems = null;
+        var items = items();
         items.clear();
         ContainerHelper.loadAllItems(tag, items);
+        getItemIndex().invalidate();
     }
 
     @Override
@@ -118,22 +234,26 @@ public class BaseContainerBlockEntityComponent<T extends BaseContainerBlockEntit
     @Override
     public final boolean isEmpty()
     {
-        return getItems().stream().allMatch(ItemStack::isEmpty);
+        return getItemIndex().isEmpty();
     }
 
     @Override
     public final ItemStack getItem(int slot)
     {
-        return getItems().get(slot);
+        exposeSlot(slot);
+        return items().get(slot);
     }
 
     @Override
     public final ItemStack removeItem(int slot, int amount)
     {
-        var removed = ContainerHelper.removeItem(getItems(), slot, amount);
+        var removed = ContainerHelper.removeItem(items(), slot, amount);
 
         if(!removed.isEmpty())
-            setChanged();
+        {
+            getItemIndex().update(slot);
+            setChangedIndexed();
+        }
 
         return removed;
     }
@@ -141,20 +261,37 @@ public class BaseContainerBlockEntityComponent<T extends BaseContainerBlockEntit
     @Override
     public final ItemStack removeItemNoUpdate(int slot)
     {
-        return ContainerHelper.takeItem(getItems(), slot);
+        var removed = ContainerHelper.takeItem(items(), slot);
+        getItemIndex().update(slot);
+        return removed;
     }
 
     @Override
     public final void setItem(int slot, ItemStack stack)
     {
-        getItems().set(slot, stack);
+        items().set(slot, stack);
+        // caller still holds the stack
+        exposeSlot(slot);
 
         var maxStackSize = getMaxStackSize();
 
         if(stack.getCount() > maxStackSize)
             stack.setCount(maxStackSize);
 
-        setChanged();
+        getItemIndex().update(slot);
+        setChangedIndexed();
+    }
+
+    @Override
+    public final int countItem(Item item)
+    {
+        return getItemIndex().countItem(item);
+    }
+
+    @Override
+    public final boolean hasAnyOf(Set<Item> set)
+    {
+        return getItemIndex().hasAnyOf(set);
     }
 
     @Override
@@ -167,7 +304,13 @@ public class BaseContainerBlockEntityComponent<T extends BaseContainerBlockEntit
     @Override
     public void clearContent()
     {
-        getItems().clear();
+        // nothing to decode, contents are being discarded anyway
+        pendingItems = null;
+        items().clear();
+        getItemIndex().clear();
+
+        if(exposedSlots != null)
+            exposedSlots.clear();
     }
 
     @Override
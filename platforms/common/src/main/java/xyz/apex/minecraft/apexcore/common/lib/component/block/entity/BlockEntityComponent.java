@@ -43,6 +43,8 @@ public sealed interface BlockEntityComponent permits BaseBlockEntityComponent
 
     // region: Helpers
     void setChanged();
+
+    void markForSync();
     // endregion
 
     // region: Events
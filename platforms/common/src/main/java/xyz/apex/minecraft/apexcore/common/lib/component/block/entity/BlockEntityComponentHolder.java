@@ -18,6 +18,7 @@ import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.phys.BlockHitResult;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
@@ -52,6 +53,12 @@ public sealed interface BlockEntityComponentHolder extends Nameable, WorldlyCont
     Collection<BlockEntityComponent> getComponents();
 
     BlockEntity getGameObject();
+
+    // set by the loot table component whenever a loot table is assigned, unpacked or cleared
+    @ApiStatus.Internal
+    void setLootTablePending(boolean lootTablePending);
+
+    boolean hasPendingLootTable();
     // endregion
 
     // region: Block Wrappers
@@ -9,6 +9,14 @@ public sealed interface BlockEntityComponentType<T extends BlockEntityComponent>
 {
     ResourceLocation registryName();
 
+    // stable index assigned in registration order, used by holders for array based lookups
+    @ApiStatus.Internal
+    int index();
+
+    // short key used when saving to disk, registry path for ApexCore components, full registry name for all others
+    @ApiStatus.Internal
+    String serializedKey();
+
     @DoNotCall
     @ApiStatus.Internal
     T newInstance(BlockEntityComponentHolder componentHolder);
@@ -3,6 +3,7 @@ package xyz.apex.minecraft.apexcore.common.lib.component.block.entity;
 import com.google.common.collect.Maps;
 import net.minecraft.resources.ResourceLocation;
 import org.jetbrains.annotations.Nullable;
+import xyz.apex.minecraft.apexcore.common.core.ApexCore;
 
 import java.util.Map;
 
@@ -11,12 +12,18 @@ final class BlockEntityComponentTypeImpl<T extends BlockEntityComponent> impleme
     private static final Map<ResourceLocation, BlockEntityComponentType<?>> REGISTRY = Maps.newHashMap();
 
     private final ResourceLocation registryName;
+    private final int index;
+    private final String serializedKey;
     private final BlockComponentFactory<T> componentFactory;
 
-    private BlockEntityComponentTypeImpl(ResourceLocation registryName, BlockComponentFactory<T> componentFactory)
+    private BlockEntityComponentTypeImpl(ResourceLocation registryName, int index, BlockComponentFactory<T> componentFactory)
     {
         this.registryName = registryName;
+        this.index = index;
         this.componentFactory = componentFactory;
+
+        // foreign keys always contain a ':', so can never collide with our own
+        serializedKey = registryName.getNamespace().equals(ApexCore.ID) ? registryName.getPath() : registryName.toString();
     }
 
     @Override
@@ -25,6 +32,18 @@ final class BlockEntityComponentTypeImpl<T extends BlockEntityComponent> impleme
         return registryName;
     }
 
+    @Override
+    public int index()
+    {
+        return index;
+    }
+
+    @Override
+    public String serializedKey()
+    {
+        return serializedKey;
+    }
+
     @Override
     public T newInstance(BlockEntityComponentHolder componentHolder)
     {
@@ -55,10 +74,13 @@ final class BlockEntityComponentTypeImpl<T extends BlockEntityComponent> impleme
 
     static <T extends BlockEntityComponent> BlockEntityComponentType<T> register(String ownerId, String componentName, BlockComponentFactory<T> componentFactory)
     {
-        var componentType = new BlockEntityComponentTypeImpl<>(new ResourceLocation(ownerId, componentName), componentFactory);
+        var registryName = new ResourceLocation(ownerId, componentName);
+
+        if(REGISTRY.containsKey(registryName))
+            throw new IllegalStateException("Attempt to register Block ComponentType with duplicate registry name: '%s'".formatted(registryName));
 
-        if(REGISTRY.put(componentType.registryName, componentType) != null)
-            throw new IllegalStateException("Attempt to register Block ComponentType with duplicate registry name: '%s'".formatted(componentType.registryName));
+        var componentType = new BlockEntityComponentTypeImpl<>(registryName, REGISTRY.size(), componentFactory);
+        REGISTRY.put(registryName, componentType);
 
         return componentType;
     }
@@ -0,0 +1,69 @@
+package xyz.apex.minecraft.apexcore.common.lib.component.block.entity;
+
+import io.netty.buffer.Unpooled;
+import net.minecraft.client.Minecraft;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.FriendlyByteBuf;
+import org.jetbrains.annotations.ApiStatus;
+import xyz.apex.minecraft.apexcore.common.core.ApexCore;
+import xyz.apex.minecraft.apexcore.common.lib.network.NetworkManager;
+import xyz.apex.minecraft.apexcore.common.lib.network.S2CPacket;
+
+import java.util.Objects;
+
+/**
+ * Update packet for block entities holding {@link NetworkSerializableComponent}s.
+ * <p>
+ * Inheritor data and components without a network codec are sent as NBT,
+ * everything else is written straight to the buffer.
+ */
+@ApiStatus.Internal
+public final class BlockEntitySyncPacket
+{
+    static final S2CPacket<BlockEntitySyncPacket> PACKET = NetworkManager.create(ApexCore.ID).registerClientBound("block_entity_sync", BlockEntitySyncPacket::encode, BlockEntitySyncPacket::new, () -> () -> BlockEntitySyncPacket::consume);
+
+    private final BlockPos pos;
+    private final CompoundTag tag;
+    // component count followed by each components position & payload
+    private final FriendlyByteBuf components;
+
+    BlockEntitySyncPacket(BlockPos pos, CompoundTag tag, FriendlyByteBuf components)
+    {
+        this.pos = pos;
+        this.tag = tag;
+        this.components = components;
+    }
+
+    private BlockEntitySyncPacket(FriendlyByteBuf buffer)
+    {
+        pos = buffer.readBlockPos();
+        tag = Objects.requireNonNull(buffer.readNbt());
+        // decode buffer is released once decoded, components are read later on the main thread
+        components = new FriendlyByteBuf(Unpooled.copiedBuffer(buffer));
+        buffer.skipBytes(buffer.readableBytes());
+    }
+
+    private static void encode(BlockEntitySyncPacket packet, FriendlyByteBuf buffer)
+    {
+        buffer.writeBlockPos(packet.pos);
+        buffer.writeNbt(packet.tag);
+        // without consuming, packet may be encoded once per connection
+        buffer.writeBytes(packet.components, packet.components.readerIndex(), packet.components.readableBytes());
+    }
+
+    private static void consume(Minecraft client, NetworkManager networkManager, BlockEntitySyncPacket packet)
+    {
+        var level = client.level;
+
+        if(level == null || !level.isLoaded(packet.pos))
+            return;
+
+        if(level.getBlockEntity(packet.pos) instanceof BaseBlockEntityComponentHolder componentHolder)
+            componentHolder.readUpdatePacket(packet.tag, packet.components);
+    }
+
+    public static void bootstrap()
+    {
+    }
+}
@@ -0,0 +1,27 @@
+package xyz.apex.minecraft.apexcore.common.lib.component.block.entity;
+
+import net.minecraft.network.FriendlyByteBuf;
+
+/**
+ * Optional interface for block entity components which are synced to clients by writing
+ * straight to a buffer, rather than through NBT.
+ * <p>
+ * Only used for update packets, full syncs sent along with chunk data still go through
+ * {@link BlockEntityComponent#serializeInto} and {@link BlockEntityComponent#deserializeFrom}.
+ */
+public interface NetworkSerializableComponent
+{
+    /**
+     * Writes the client visible state of this component.
+     *
+     * @param buffer Buffer to write to.
+     */
+    void writeToNetwork(FriendlyByteBuf buffer);
+
+    /**
+     * Reads the client visible state of this component, must read exactly what {@link #writeToNetwork} wrote.
+     *
+     * @param buffer Buffer to read from.
+     */
+    void readFromNetwork(FriendlyByteBuf buffer);
+}
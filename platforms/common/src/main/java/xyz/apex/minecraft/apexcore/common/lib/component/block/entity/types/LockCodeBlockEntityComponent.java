@@ -27,6 +27,7 @@ public final class LockCodeBlockEntityComponent extends BaseBlockEntityComponent
     public void setLockCode(LockCode lockCode)
     {
         this.lockCode = lockCode;
+        markForSync();
     }
 
     public void clearLockCode()
@@ -4,20 +4,26 @@ import net.minecraft.advancements.CriteriaTriggers;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.Tag;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.TickTask;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.entity.RandomizableContainerBlockEntity;
+import net.minecraft.world.level.chunk.LevelChunk;
 import net.minecraft.world.level.storage.loot.LootParams;
 import net.minecraft.world.level.storage.loot.parameters.LootContextParamSets;
 import net.minecraft.world.level.storage.loot.parameters.LootContextParams;
+import org.apache.commons.lang3.Validate;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 import xyz.apex.minecraft.apexcore.common.core.ApexCore;
 import xyz.apex.minecraft.apexcore.common.lib.component.block.entity.BaseBlockEntityComponent;
 import xyz.apex.minecraft.apexcore.common.lib.component.block.entity.BlockEntityComponentHolder;
 import xyz.apex.minecraft.apexcore.common.lib.component.block.entity.BlockEntityComponentType;
 
+import java.util.List;
+
 public final class LootTableBlockEntityComponent extends BaseBlockEntityComponent
 {
     public static final BlockEntityComponentType<LootTableBlockEntityComponent> COMPONENT_TYPE = BlockEntityComponentType.register(ApexCore.ID, "loot_table", LootTableBlockEntityComponent::new);
@@ -27,16 +33,31 @@ public final class LootTableBlockEntityComponent extends BaseBlockEntityComponen
 
     @Nullable private ResourceLocation lootTableId = null;
     private long lootTableSeed = -1L;
+    private boolean unpackOnChunkLoad = false;
 
     private LootTableBlockEntityComponent(BlockEntityComponentHolder componentHolder)
     {
         super(componentHolder);
     }
 
+    public LootTableBlockEntityComponent withUnpackOnChunkLoad()
+    {
+        Validate.isTrue(!isRegistered(), "Can only enable unpacking on chunk load during registration");
+        unpackOnChunkLoad = true;
+        return this;
+    }
+
+    public boolean isUnpackOnChunkLoad()
+    {
+        return unpackOnChunkLoad;
+    }
+
     public void setLootTable(ResourceLocation lootTableId, long lootTableSeed)
     {
         this.lootTableId = lootTableId;
         this.lootTableSeed = lootTableSeed;
+        componentHolder.setLootTablePending(true);
+        markForSync();
     }
 
     public void setLootTable(ResourceLocation lootTableId)
@@ -48,6 +69,8 @@ public final class LootTableBlockEntityComponent extends BaseBlockEntityComponen
     {
         lootTableId = null;
         lootTableSeed = -1L;
+        componentHolder.setLootTablePending(false);
+        markForSync();
     }
 
     public void unpackLootTable(@Nullable Player player)
@@ -69,6 +92,7 @@ public final class LootTableBlockEntityComponent extends BaseBlockEntityComponen
         // if we dont clear the id here, we could cause stack overflow
         // calling this method over and over again
         lootTableId = null;
+        componentHolder.setLootTablePending(false);
 
         var builder = new LootParams.Builder(level)
                 .withParameter(LootContextParams.BLOCK_ENTITY, blockEntity)
@@ -105,6 +129,7 @@ public final class LootTableBlockEntityComponent extends BaseBlockEntityComponen
         {
             lootTableId = new ResourceLocation(tag.getString(NBT_LOOT_TABLE));
             lootTableSeed = tag.contains(NBT_LOOT_TABLE_SEED, Tag.TAG_ANY_NUMERIC) ? tag.getLong(NBT_LOOT_TABLE_SEED) : -1L;
+            componentHolder.setLootTablePending(true);
         }
     }
 
@@ -120,4 +145,38 @@ public final class LootTableBlockEntityComponent extends BaseBlockEntityComponen
                 component.unpackLootTable(player);
         }
     }
+
+    /**
+     * Unpacks every pending loot table within the given chunk, for components which opted in using {@link #withUnpackOnChunkLoad()}.
+     *
+     * @param chunk Chunk to unpack loot tables for.
+     */
+    public static void unpackLootTables(LevelChunk chunk)
+    {
+        // copy, unpacking may cause block entities to be added or removed
+        for(var blockEntity : List.copyOf(chunk.getBlockEntities().values()))
+        {
+            if(!(blockEntity instanceof BlockEntityComponentHolder componentHolder) || !componentHolder.hasPendingLootTable())
+                continue;
+
+            var component = componentHolder.getComponent(COMPONENT_TYPE);
+
+            if(component != null && component.unpackOnChunkLoad)
+                component.unpackLootTable(null);
+        }
+    }
+
+    @ApiStatus.Internal
+    public static void onChunkLoad(ServerLevel level, LevelChunk chunk)
+    {
+        var server = level.getServer();
+        var chunkPos = chunk.getPos();
+
+        // defer to the next server tick, loot generation should not run while the chunk is still being loaded
+        server.tell(new TickTask(server.getTickCount(), () -> {
+            // chunk may have been unloaded before we got to it
+            if(level.getChunkSource().getChunkNow(chunkPos.x, chunkPos.z) == chunk)
+                unpackLootTables(chunk);
+        }));
+    }
 }
@@ -30,6 +30,7 @@ public final class NameableBlockEntityComponent extends BaseBlockEntityComponent
     public void setCustomName(@Nullable Component customName)
     {
         this.customName = customName;
+        markForSync();
     }
 
     @Override
@@ -82,7 +83,8 @@ public final class NameableBlockEntityComponent extends BaseBlockEntityComponent
 
     public static Component getDisplayName(BlockEntityComponentHolder componentHolder)
     {
-        return componentHolder.findComponent(COMPONENT_TYPE).map(NameableBlockEntityComponent::getDisplayName).orElseGet(componentHolder::getDefaultName);
+        var component = componentHolder.getComponent(COMPONENT_TYPE);
+        return component == null ? componentHolder.getDefaultName() : component.getDisplayName();
     }
 
     public static Component getDisplayName(BlockEntity blockEntity)
@@ -10,50 +10,78 @@ import net.minecraft.world.inventory.ContainerData;
 import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import org.jetbrains.annotations.Nullable;
-import org.joml.Math;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
-import java.util.function.BiConsumer;
-import java.util.function.BiFunction;
 import java.util.function.Predicate;
 
 public final class CompositeContainer implements WorldlyContainer, ContainerData
 {
     private final List<Container> containers;
 
-    // slot logic pulled directly from NeoForge's CombinedInvWrapper
-    // https://github.com/neoforged/NeoForge/blob/eb25ba6224acf22c58869e852f77578817f42b82/src/main/java/net/minecraftforge/items/wrapper/CombinedInvWrapper.java#L16-L74
+    // flat lookup tables, global slot / data index -> owning container & local index
+    // hoppers and pipes route every single access through these, so keep them primitive
+    private final Container[] slotContainers;
+    private final int[] slotIndices;
+    private final ContainerData[] dataContainers;
+    private final int[] dataIndices;
+    // first global slot for each container, used to map local slots back to global slots
     private final int[] baseSlotIndices;
-    private final int[] baseDataIndices;
     private final int slotCount;
     private final int dataCount;
+    // per face global slots, indexed by Direction ordinal, lazily resolved
+    // hoppers query these every transfer attempt, cleared by invalidateSlotsForFace
+    private final int[][] slotsForFace = new int[Direction.values().length][];
 
     public CompositeContainer(Container... containers)
     {
         this.containers = List.of(containers);
 
         baseSlotIndices = new int[containers.length];
-        baseDataIndices = new int[containers.length];
 
         var slotIndex = 0;
         var dataIndex = 0;
 
         for(var i = 0; i < containers.length; i++)
         {
-            slotIndex += containers[i].getContainerSize();
             baseSlotIndices[i] = slotIndex;
-            baseDataIndices[i] = 0;
+            slotIndex += containers[i].getContainerSize();
 
             if(containers[i] instanceof ContainerData data)
-            {
                 dataIndex += data.getCount();
-                baseDataIndices[i] = dataIndex;
-            }
         }
 
         slotCount = slotIndex;
         dataCount = dataIndex;
+
+        slotContainers = new Container[slotCount];
+        slotIndices = new int[slotCount];
+        dataContainers = new ContainerData[dataCount];
+        dataIndices = new int[dataCount];
+
+        slotIndex = 0;
+        dataIndex = 0;
+
+        for(var container : containers)
+        {
+            for(var i = 0; i < container.getContainerSize(); i++)
+            {
+                slotContainers[slotIndex] = container;
+                slotIndices[slotIndex] = i;
+                slotIndex++;
+            }
+
+            if(container instanceof ContainerData data)
+            {
+                for(var i = 0; i < data.getCount(); i++)
+                {
+                    dataContainers[dataIndex] = data;
+                    dataIndices[dataIndex] = i;
+                    dataIndex++;
+                }
+            }
+        }
     }
 
     public Container getContainer(int containerIndex)
@@ -75,7 +103,13 @@ public final class CompositeContainer implements WorldlyContainer, ContainerData
 
     public boolean contains(Container other)
     {
-        return containers.stream().anyMatch(container -> container == other);
+        for(var container : containers)
+        {
+            if(container == other)
+                return true;
+        }
+
+        return false;
     }
 
     @Override
@@ -87,31 +121,37 @@ public final class CompositeContainer implements WorldlyContainer, ContainerData
     @Override
     public boolean isEmpty()
     {
-        return containers.stream().allMatch(Container::isEmpty);
+        for(var container : containers)
+        {
+            if(!container.isEmpty())
+                return false;
+        }
+
+        return true;
     }
 
     @Override
     public ItemStack getItem(int globalSlot)
     {
-        return withContainer(globalSlot, Container::getItem);
+        return container(globalSlot).getItem(slot(globalSlot));
     }
 
     @Override
     public ItemStack removeItem(int globalSlot, int amount)
     {
-        return withContainer(globalSlot, (container, slotIndex) -> container.removeItem(slotIndex, amount));
+        return container(globalSlot).removeItem(slot(globalSlot), amount);
     }
 
     @Override
     public ItemStack removeItemNoUpdate(int globalSlot)
     {
-        return withContainer(globalSlot, Container::removeItemNoUpdate);
+        return container(globalSlot).removeItemNoUpdate(slot(globalSlot));
     }
 
     @Override
     public void setItem(int globalSlot, ItemStack stack)
     {
-        asContainer(globalSlot, (container, slotIndex) -> container.setItem(slotIndex, stack));
+        container(globalSlot).setItem(slot(globalSlot), stack);
     }
 
     @Override
@@ -141,13 +181,13 @@ public final class CompositeContainer implements WorldlyContainer, ContainerData
     @Override
     public boolean canPlaceItem(int globalSlot, ItemStack stack)
     {
-        return withContainer(globalSlot, (container, slotIndex) -> container.canPlaceItem(slotIndex, stack));
+        return container(globalSlot).canPlaceItem(slot(globalSlot), stack);
     }
 
     @Override
     public boolean canTakeItem(Container target, int globalSlot, ItemStack stack)
     {
-        return withContainer(globalSlot, (container, slotIndex) -> container.canTakeItem(target, slotIndex, stack));
+        return container(globalSlot).canTakeItem(target, slot(globalSlot), stack);
     }
 
     @Override
@@ -159,29 +199,74 @@ public final class CompositeContainer implements WorldlyContainer, ContainerData
     @Override
     public int countItem(Item item)
     {
-        return containers.stream().mapToInt(container -> container.countItem(item)).sum();
+        var count = 0;
+
+        for(var container : containers)
+        {
+            count += container.countItem(item);
+        }
+
+        return count;
     }
 
     @Override
     public boolean hasAnyOf(Set<Item> set)
     {
-        return containers.stream().anyMatch(container -> container.hasAnyOf(set));
+        for(var container : containers)
+        {
+            if(container.hasAnyOf(set))
+                return true;
+        }
+
+        return false;
     }
 
     @Override
     public boolean hasAnyMatching(Predicate<ItemStack> predicate)
     {
-        return containers.stream().anyMatch(container -> container.hasAnyMatching(predicate));
+        for(var container : containers)
+        {
+            if(container.hasAnyMatching(predicate))
+                return true;
+        }
+
+        return false;
     }
 
     @Override
     public boolean stillValid(Player player)
     {
-        return containers.stream().allMatch(container -> container.stillValid(player));
+        for(var container : containers)
+        {
+            if(!container.stillValid(player))
+                return false;
+        }
+
+        return true;
     }
 
     @Override
     public int[] getSlotsForFace(Direction side)
+    {
+        var slots = slotsForFace[side.ordinal()];
+
+        if(slots == null)
+        {
+            slots = resolveSlotsForFace(side);
+            slotsForFace[side.ordinal()] = slots;
+        }
+
+        return slots;
+    }
+
+    // should be called whenever the face mapping of any child container may have changed
+    // such as the owning block state changing facing
+    public void invalidateSlotsForFace()
+    {
+        Arrays.fill(slotsForFace, null);
+    }
+
+    private int[] resolveSlotsForFace(Direction side)
     {
         var slotsForSide = new IntOpenHashSet();
 
@@ -191,56 +276,60 @@ public final class CompositeContainer implements WorldlyContainer, ContainerData
             {
                 for(var slotIndex : worldy.getSlotsForFace(side))
                 {
-                    slotsForSide.add(getGlobalSlotForContainerSlotIndex(slotIndex, containerIndex));
+                    slotsForSide.add(baseSlotIndices[containerIndex] + slotIndex);
                 }
             }
         }
 
-        return slotsForSide.toIntArray();
+        return slotsForSide.isEmpty() ? EmptyContainer.NO_SLOTS : slotsForSide.toIntArray();
     }
 
     @Override
     public boolean canPlaceItemThroughFace(int globalSlot, ItemStack stack, @Nullable Direction side)
     {
-        return withContainer(globalSlot, (container, slotIndex) -> container instanceof WorldlyContainer worldly ? worldly.canPlaceItemThroughFace(slotIndex, stack, side) : container.canPlaceItem(slotIndex, stack));
+        var container = container(globalSlot);
+        var slotIndex = slot(globalSlot);
+        return container instanceof WorldlyContainer worldly ? worldly.canPlaceItemThroughFace(slotIndex, stack, side) : container.canPlaceItem(slotIndex, stack);
     }
 
     @Override
     public boolean canTakeItemThroughFace(int globalSlot, ItemStack stack, Direction side)
     {
-        return withContainer(globalSlot, (container, slotIndex) -> {
-            if(container instanceof WorldlyContainer worldly)
-                return worldly.canTakeItemThroughFace(slotIndex, stack, side);
+        var container = container(globalSlot);
+        var slotIndex = slot(globalSlot);
 
-            try
-            {
-                // takes target container as a none null argument
-                // not the best solution, but we do need to know if
-                // container allows items to be extracted from
-                //
-                // hoppers are only thing which call this method in vanilla
-                // and jukeboxes / chiseled bookshelves are only things which implement it
-                // our methods should never need the target argument, so we should be good to
-                // pass null so long as we take care as to what containers the CompositeContainer is wrapping
-                return container.canTakeItem(null, slotIndex, stack);
-            }
-            catch(NullPointerException ignored)
-            {
-                return false;
-            }
-        });
+        if(container instanceof WorldlyContainer worldly)
+            return worldly.canTakeItemThroughFace(slotIndex, stack, side);
+
+        try
+        {
+            // takes target container as a none null argument
+            // not the best solution, but we do need to know if
+            // container allows items to be extracted from
+            //
+            // hoppers are only thing which call this method in vanilla
+            // and jukeboxes / chiseled bookshelves are only things which implement it
+            // our methods should never need the target argument, so we should be good to
+            // pass null so long as we take care as to what containers the CompositeContainer is wrapping
+            return container.canTakeItem(null, slotIndex, stack);
+        }
+        catch(NullPointerException ignored)
+        {
+            return false;
+        }
     }
 
     @Override
     public int get(int globalData)
     {
-        return withContainerData(globalData, ContainerData::get);
+        return globalData < 0 || globalData >= dataCount ? 0 : dataContainers[globalData].get(dataIndices[globalData]);
     }
 
     @Override
     public void set(int globalData, int value)
     {
-        asContainerData(globalData, (containerData, dataIndex) -> containerData.set(dataIndex, value));
+        if(globalData >= 0 && globalData < dataCount)
+            dataContainers[globalData].set(dataIndices[globalData], value);
     }
 
     @Override
@@ -249,93 +338,13 @@ public final class CompositeContainer implements WorldlyContainer, ContainerData
         return dataCount;
     }
 
-    private void asContainer(int globalSlot, BiConsumer<Container, Integer> consumer)
-    {
-        var containerIndex = getContainerIndexForGlobalSlot(globalSlot);
-        var container = getContainer(containerIndex);
-        var slotIndex = getSlotIndexForGlobalSlot(globalSlot, containerIndex);
-
-        consumer.accept(container, slotIndex);
-    }
-
-    private void asContainerData(int globalData, BiConsumer<ContainerData, Integer> consumer)
-    {
-        var containerDataIndex = getContainerDataIndexForGlobalData(globalData);
-        var containerData = getContainerData(containerDataIndex);
-        var dataIndex = getDataIndexForGlobalData(globalData, containerDataIndex);
-
-        consumer.accept(containerData, dataIndex);
-    }
-
-    private <T> T withContainer(int globalSlot, BiFunction<Container, Integer, T> mapper)
-    {
-        var containerIndex = getContainerIndexForGlobalSlot(globalSlot);
-        var container = getContainer(containerIndex);
-        var slotIndex = getSlotIndexForGlobalSlot(globalSlot, containerIndex);
-
-        return mapper.apply(container, slotIndex);
-    }
-
-    private <T> T withContainerData(int globalData, BiFunction<ContainerData, Integer, T> mapper)
-    {
-        var containerDataIndex = getContainerDataIndexForGlobalData(globalData);
-        var containerData = getContainerData(containerDataIndex);
-        var dataIndex = getDataIndexForGlobalData(globalData, containerDataIndex);
-
-        return mapper.apply(containerData, dataIndex);
-    }
-
-    private int getContainerIndexForGlobalSlot(int globalSlot)
-    {
-        if(globalSlot < 0)
-            return -1;
-
-        for(var containerIndex = 0; containerIndex < baseSlotIndices.length; containerIndex++)
-        {
-            if(globalSlot - baseSlotIndices[containerIndex] < 0)
-                return containerIndex;
-        }
-
-        return -1;
-    }
-
-    private int getContainerDataIndexForGlobalData(int globalData)
-    {
-        if(globalData < 0)
-            return -1;
-
-        for(var dataIndex = 0; dataIndex < baseDataIndices.length; dataIndex++)
-        {
-            if(globalData - baseDataIndices[dataIndex] < 0)
-                return dataIndex;
-        }
-
-        return -1;
-    }
-
-    private int getSlotIndexForGlobalSlot(int globalSlot, int containerIndex)
-    {
-        if(containerIndex <= 0 || containerIndex >= baseSlotIndices.length)
-            return globalSlot;
-
-        return globalSlot - baseSlotIndices[containerIndex - 1];
-    }
-
-    private int getDataIndexForGlobalData(int globalData, int containerDataIndex)
-    {
-        if(containerDataIndex <= 0 || containerDataIndex >= baseDataIndices.length)
-            return globalData;
-
-        return globalData - baseDataIndices[containerDataIndex - 1];
-    }
-
-    private int getGlobalSlotForContainerSlotIndex(int slotIndex, int containerIndex)
+    private Container container(int globalSlot)
     {
-        return Math.abs(slotIndex - (baseSlotIndices[containerIndex] - 1));
+        return globalSlot < 0 || globalSlot >= slotCount ? EmptyContainer.INSTANCE : slotContainers[globalSlot];
     }
 
-    private int getGlobalDataForContainerDataIndex(int dataIndex, int containerDataIndex)
+    private int slot(int globalSlot)
     {
-        return Math.abs(dataIndex - (baseDataIndices[containerDataIndex] - 1));
+        return globalSlot < 0 || globalSlot >= slotCount ? globalSlot : slotIndices[globalSlot];
     }
 }
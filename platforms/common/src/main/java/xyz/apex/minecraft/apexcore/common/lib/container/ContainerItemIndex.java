@@ -0,0 +1,175 @@
+package xyz.apex.minecraft.apexcore.common.lib.container;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Incremental index of the items stored within a list of slots.
+ * <p>
+ * Tracks which slots are occupied along with the total count of each item,
+ * allowing emptiness and item count queries without visiting every slot.
+ * <p>
+ * Slots must be reported through {@link #update(int)} after being mutated,
+ * if stacks may have been mutated without being reported, {@link #invalidate()} should be called
+ * and the index will be rebuilt from the backing list when next queried.
+ */
+public final class ContainerItemIndex
+{
+    private final List<ItemStack> items;
+    private final BitSet occupiedSlots;
+    // item & count last seen in each slot, used to back out stale contributions
+    private final Item[] slotItems;
+    private final int[] slotCounts;
+    private final Reference2IntMap<Item> itemCounts = new Reference2IntOpenHashMap<>();
+    private boolean valid = false;
+
+    /**
+     * @param items Backing list of slots to be indexed, must not change size.
+     */
+    public ContainerItemIndex(List<ItemStack> items)
+    {
+        this.items = items;
+
+        var slotCount = items.size();
+        occupiedSlots = new BitSet(slotCount);
+        slotItems = new Item[slotCount];
+        slotCounts = new int[slotCount];
+    }
+
+    /**
+     * Updates the index for the given slot from its current stack.
+     *
+     * @param slot Slot which has been mutated.
+     */
+    public void update(int slot)
+    {
+        // rebuilt lazily on next query anyway
+        if(!valid)
+            return;
+
+        var previousItem = slotItems[slot];
+
+        if(previousItem != null)
+        {
+            var remaining = itemCounts.getInt(previousItem) - slotCounts[slot];
+
+            if(remaining > 0)
+                itemCounts.put(previousItem, remaining);
+            else
+                itemCounts.removeInt(previousItem);
+        }
+
+        index(slot, items.get(slot));
+    }
+
+    /**
+     * Marks every slot as empty, should be called after the backing list has been cleared.
+     */
+    public void clear()
+    {
+        occupiedSlots.clear();
+        itemCounts.clear();
+
+        for(var i = 0; i < slotItems.length; i++)
+        {
+            slotItems[i] = null;
+            slotCounts[i] = 0;
+        }
+
+        valid = true;
+    }
+
+    /**
+     * Marks the index as stale, forcing a rebuild from the backing list when next queried.
+     */
+    public void invalidate()
+    {
+        valid = false;
+    }
+
+    public boolean isValid()
+    {
+        return valid;
+    }
+
+    public boolean isEmpty()
+    {
+        validate();
+        return occupiedSlots.isEmpty();
+    }
+
+    public boolean isOccupied(int slot)
+    {
+        validate();
+        return occupiedSlots.get(slot);
+    }
+
+    public int countItem(Item item)
+    {
+        validate();
+        return itemCounts.getInt(item);
+    }
+
+    public boolean hasAnyOf(Set<Item> set)
+    {
+        validate();
+
+        // visit whichever side is smaller
+        if(set.size() < itemCounts.size())
+        {
+            for(var item : set)
+            {
+                if(itemCounts.containsKey(item))
+                    return true;
+            }
+        }
+        else
+        {
+            for(var item : itemCounts.keySet())
+            {
+                if(set.contains(item))
+                    return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void validate()
+    {
+        if(valid)
+            return;
+
+        clear();
+
+        for(var i = 0; i < slotItems.length; i++)
+        {
+            index(i, items.get(i));
+        }
+    }
+
+    private void index(int slot, ItemStack stack)
+    {
+        if(stack.isEmpty())
+        {
+            occupiedSlots.clear(slot);
+            slotItems[slot] = null;
+            slotCounts[slot] = 0;
+            return;
+        }
+
+        var item = stack.getItem();
+        var count = stack.getCount();
+
+        occupiedSlots.set(slot);
+        slotItems[slot] = item;
+        slotCounts[slot] = count;
+        itemCounts.mergeInt(item, count, Integer::sum);
+    }
+}
@@ -1,12 +1,11 @@
-/*
 package xyz.apex.minecraft.apexcore.common.lib.event;
 
-*/
 /**
  * Basic event interface.
- *//*
-
+ * <p>
+ * Events are functional listener interfaces, listeners implement the interface
+ * and the {@link EventType} invoker implements it to dispatch to every registered listener.
+ */
 public interface Event
 {
 }
-*/
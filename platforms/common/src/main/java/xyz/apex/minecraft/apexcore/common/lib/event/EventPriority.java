@@ -0,0 +1,15 @@
+package xyz.apex.minecraft.apexcore.common.lib.event;
+
+/**
+ * Phases listeners may be registered under, listeners are invoked from {@link #HIGHEST} to {@link #LOWEST}.
+ * <p>
+ * Listeners within the same phase are invoked in registration order.
+ */
+public enum EventPriority
+{
+    HIGHEST,
+    HIGH,
+    NORMAL,
+    LOW,
+    LOWEST
+}
@@ -0,0 +1,40 @@
+package xyz.apex.minecraft.apexcore.common.lib.event;
+
+/**
+ * Result returned by cancellable events.
+ * <p>
+ * Any result other than {@link #PASS} short-circuits the event, no further listeners are invoked.
+ */
+public enum EventResult
+{
+    /**
+     * Listener has no opinion, continue invoking further listeners.
+     */
+    PASS,
+
+    /**
+     * Listener allows the action, no further listeners are invoked.
+     */
+    ALLOW,
+
+    /**
+     * Listener cancels the action, no further listeners are invoked.
+     */
+    CANCEL;
+
+    /**
+     * @return True if this result short-circuits the event.
+     */
+    public boolean isFinal()
+    {
+        return this != PASS;
+    }
+
+    /**
+     * @return True if the action was cancelled.
+     */
+    public boolean isCancelled()
+    {
+        return this == CANCEL;
+    }
+}
@@ -1,78 +1,79 @@
-/*
 package xyz.apex.minecraft.apexcore.common.lib.event;
 
-import org.jetbrains.annotations.ApiStatus;
-import xyz.apex.minecraft.apexcore.common.lib.PhysicalSide;
-import xyz.apex.minecraft.apexcore.common.lib.event.types.*;
-
-import java.util.List;
 import java.util.function.Function;
+import java.util.function.IntFunction;
 
-*/
 /**
  * Interface describing an event type.
+ * <p>
+ * Listeners are stored in copy-on-write arrays and the invoker is only rebuilt when listeners change,
+ * posting an event never allocates. With no listeners the empty invoker is returned, with a single listener
+ * the listener itself is returned, otherwise the invoker built from every listener.
+ * <p>
+ * Cancellable events should return an {@link EventResult} and stop invoking listeners once a final result is returned.
+ * <pre>{@code
+ * EventType<BlockUse> BLOCK_USE = EventType.create(BlockUse[]::new, (player, pos) -> EventResult.PASS, listeners -> (player, pos) -> {
+ *     for(var listener : listeners)
+ *     {
+ *         var result = listener.onBlockUse(player, pos);
+ *
+ *         if(result.isFinal())
+ *             return result;
+ *     }
+ *
+ *     return EventResult.PASS;
+ * });
+ * }</pre>
  *
  * @param <T> Type of event.
- *//*
-
+ */
 public sealed interface EventType<T extends Event> permits EventTypeImpl
 {
-    */
-/**
-     * Registers the given listener.
+    /**
+     * Registers the given listener with {@link EventPriority#NORMAL} priority.
      *
      * @param listener Listener to be registered.
-     *//*
-
+     */
     void addListener(T listener);
 
-    */
-/**
+    /**
+     * Registers the given listener with the given priority.
+     *
+     * @param priority Priority phase the listener is invoked within.
+     * @param listener Listener to be registered.
+     */
+    void addListener(EventPriority priority, T listener);
+
+    /**
      * Unregisters the given listener.
      *
      * @param listener Listener to be unregistered.
-     *//*
-
+     */
     void removeListener(T listener);
 
-    */
-/**
-     * Posts this event type to all registered listeners, returning the result.
-     *
-     * @return Result after invoking all registered listeners.
-     *//*
+    /**
+     * @return True if any listeners are registered.
+     */
+    boolean hasListeners();
 
+    /**
+     * Returns the invoker for all registered listeners, which should be called to post this event.
+     *
+     * @return Invoker for all registered listeners.
+     */
     T post();
 
-    */
-/**
+    /**
      * Returns new event type, using given invoker to invoke all registered listeners.
      *
-     * @param invoker Invoker used to invoke all listeners.
-     * @param <T>     Type of event.
+     * @param arrayFactory Factory used to create listener arrays.
+     * @param emptyInvoker Invoker used while no listeners are registered.
+     * @param invoker      Invoker used to invoke multiple listeners, the given array is never modified.
+     * @param <T>          Type of event.
      * @return New event type.
-     *//*
-
-    static <T extends Event> EventType<T> create(Function<List<T>, T> invoker)
+     */
+    static <T extends Event> EventType<T> create(IntFunction<T[]> arrayFactory, T emptyInvoker, Function<T[], T> invoker)
     {
-        return new EventTypeImpl<>(invoker);
-    }
-
-    @ApiStatus.Internal
-    static void bootstrap()
-    {
-        PhysicalSide.CLIENT.runWhenOn(() -> () -> {
-            ClientConnectionEvents.bootstrap();
-            ClientEvents.bootstrap();
-            InputEvents.bootstrap();
-            ScreenEvents.bootstrap();
-        });
-
-        LevelRendererEvents.bootstrap();
-        EntityEvents.bootstrap();
-        PlayerEvents.bootstrap();
-        ServerEvents.bootstrap();
-        TickEvents.bootstrap();
+        return new EventTypeImpl<>(arrayFactory, emptyInvoker, invoker);
     }
 }
-*/
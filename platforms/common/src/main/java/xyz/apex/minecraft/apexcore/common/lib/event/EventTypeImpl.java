@@ -1,39 +1,107 @@
-/*
 package xyz.apex.minecraft.apexcore.common.lib.event;
 
-import com.google.common.collect.Lists;
+import org.apache.commons.lang3.ArrayUtils;
 
-import java.util.Collections;
-import java.util.List;
 import java.util.function.Function;
+import java.util.function.IntFunction;
 
 final class EventTypeImpl<T extends Event> implements EventType<T>
 {
-    private final List<T> listeners = Lists.newLinkedList();
-    private final List<T> invokable = Collections.unmodifiableList(listeners);
-    private final Function<List<T>, T> invoker;
+    private static final EventPriority[] PRIORITIES = EventPriority.values();
 
-    EventTypeImpl(Function<List<T>, T> invoker)
+    private final IntFunction<T[]> arrayFactory;
+    private final T emptyInvoker;
+    private final Function<T[], T> invoker;
+    // listeners per priority phase, arrays are never mutated once assigned, only replaced
+    private final T[][] listeners;
+    private volatile T[] allListeners;
+    private volatile T activeInvoker;
+
+    @SuppressWarnings("unchecked")
+    EventTypeImpl(IntFunction<T[]> arrayFactory, T emptyInvoker, Function<T[], T> invoker)
     {
+        this.arrayFactory = arrayFactory;
+        this.emptyInvoker = emptyInvoker;
         this.invoker = invoker;
+
+        listeners = (T[][]) new Event[PRIORITIES.length][];
+
+        for(var i = 0; i < listeners.length; i++)
+        {
+            listeners[i] = arrayFactory.apply(0);
+        }
+
+        allListeners = arrayFactory.apply(0);
+        activeInvoker = emptyInvoker;
     }
 
     @Override
     public void addListener(T listener)
     {
-        listeners.add(listener);
+        addListener(EventPriority.NORMAL, listener);
     }
 
     @Override
-    public void removeListener(T listener)
+    public synchronized void addListener(EventPriority priority, T listener)
     {
-        listeners.remove(listener);
+        listeners[priority.ordinal()] = ArrayUtils.add(listeners[priority.ordinal()], listener);
+        rebuild();
+    }
+
+    @Override
+    public synchronized void removeListener(T listener)
+    {
+        for(var i = 0; i < listeners.length; i++)
+        {
+            var index = ArrayUtils.indexOf(listeners[i], listener);
+
+            if(index != ArrayUtils.INDEX_NOT_FOUND)
+            {
+                listeners[i] = ArrayUtils.remove(listeners[i], index);
+                rebuild();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public boolean hasListeners()
+    {
+        return allListeners.length > 0;
     }
 
     @Override
     public T post()
     {
-        return invoker.apply(invokable);
+        return activeInvoker;
+    }
+
+    private void rebuild()
+    {
+        var count = 0;
+
+        for(var phase : listeners)
+        {
+            count += phase.length;
+        }
+
+        var merged = arrayFactory.apply(count);
+        var offset = 0;
+
+        for(var phase : listeners)
+        {
+            System.arraycopy(phase, 0, merged, offset, phase.length);
+            offset += phase.length;
+        }
+
+        allListeners = merged;
+
+        // specialize for the common cases, skipping the invoker loop entirely
+        activeInvoker = switch(count)
+        {
+            case 0 -> emptyInvoker;
+            case 1 -> merged[0];
+            default -> invoker.apply(merged);
+        };
     }
 }
-*/
@@ -3,6 +3,7 @@ package xyz.apex.minecraft.apexcore.common.lib.modloader;
 import org.jetbrains.annotations.ApiStatus;
 import xyz.apex.minecraft.apexcore.common.core.ApexCore;
 
+import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Optional;
 import java.util.Set;
@@ -59,6 +60,11 @@ public interface ModLoader
      */
     Collection<Mod> getLoadedMods();
 
+    /**
+     * @return Root directory of the running game instance.
+     */
+    Path gameDirectory();
+
     static ModLoader get()
     {
         return ApexCore.MOD_LOADER;
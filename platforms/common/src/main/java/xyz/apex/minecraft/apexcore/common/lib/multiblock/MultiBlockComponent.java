@@ -1,9 +1,7 @@
 package xyz.apex.minecraft.apexcore.common.lib.multiblock;
 
-import net.minecraft.advancements.CriteriaTriggers;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
-import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.sounds.SoundSource;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.player.Player;
@@ -15,7 +13,6 @@ import net.minecraft.world.level.block.*;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.block.state.StateDefinition;
 import net.minecraft.world.level.gameevent.GameEvent;
-import net.minecraft.world.phys.shapes.CollisionContext;
 import org.apache.commons.lang3.Validate;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.UnknownNullability;
@@ -76,22 +73,8 @@ public final class MultiBlockComponent extends BaseBlockComponent
     @Override
     public BlockState getStateForPlacement(BlockState placementBlockState, BlockPlaceContext context)
     {
-        var level = context.getLevel();
-        var root = context.getClickedPos();
-        var placer = context.getPlayer();
-
-        var multiBlockType = getMultiBlockType();
-
-        for(var i = 0; i < multiBlockType.size(); i++)
-        {
-            var newBlockState = setIndex(multiBlockType, placementBlockState, i);
-            var worldPosition = worldPosition(multiBlockType, root, newBlockState);
-
-            if(!canPlaceAt(level, worldPosition, newBlockState, placer))
-                return null;
-        }
-
-        return placementBlockState;
+        var result = MultiBlockPlacement.validate(context.getLevel(), getMultiBlockType(), context.getClickedPos(), placementBlockState, context.getPlayer());
+        return result.isSuccess() ? placementBlockState : null;
     }
 
     @Override
@@ -103,7 +86,7 @@ public final class MultiBlockComponent extends BaseBlockComponent
     @Override
     public void onPlace(BlockState blockState, Level level, BlockPos pos, BlockState oldBlockState, boolean isMoving)
     {
-        if(!oldBlockState.is(blockState.getBlock()))
+        if(!oldBlockState.is(blockState.getBlock()) && !isMutating(blockState, pos))
             place(level, pos, blockState, null, ItemStack.EMPTY, false);
     }
 
@@ -116,10 +99,17 @@ public final class MultiBlockComponent extends BaseBlockComponent
     @Override
     public void onRemove(BlockState blockState, Level level, BlockPos pos, BlockState newBlockState, boolean isMoving)
     {
-        if(!newBlockState.is(blockState.getBlock()))
+        if(!newBlockState.is(blockState.getBlock()) && !isMutating(blockState, pos))
             destroy(level, pos, blockState, null);
     }
 
+    // true while this parts own multi block is being written, parts of other multi blocks must still react
+    private boolean isMutating(BlockState blockState, BlockPos pos)
+    {
+        var multiBlockType = getMultiBlockType();
+        return MultiBlockMutation.isMutating(multiBlockType, rootPosition(multiBlockType, pos, blockState));
+    }
+
     public static int getIndex(MultiBlockType multiBlockType, BlockState blockState)
     {
         return blockState.getValue(multiBlockType.getProperty());
@@ -130,35 +120,41 @@ public final class MultiBlockComponent extends BaseBlockComponent
         return blockState.setValue(multiBlockType.getProperty(), index);
     }
 
+    @Nullable
+    public static Direction getFacing(BlockState blockState)
+    {
+        return blockState.hasProperty(HorizontalDirectionalBlock.FACING) ? blockState.getValue(HorizontalDirectionalBlock.FACING) : null;
+    }
+
     public static BlockPos rootPosition(MultiBlockType multiBlockType, BlockPos worldPosition, BlockState blockState)
     {
-        var localPositions = multiBlockType.getLocalPositions();
-        var index = getIndex(multiBlockType, blockState);
-        var localPosition = correctedLocalPosition(localPositions.get(index), blockState);
-        return worldPosition.subtract(localPosition);
+        return worldPosition.offset(multiBlockType.getRootOffset(getIndex(multiBlockType, blockState), getFacing(blockState)));
+    }
+
+    public static BlockPos.MutableBlockPos rootPosition(MultiBlockType multiBlockType, BlockPos worldPosition, BlockState blockState, BlockPos.MutableBlockPos result)
+    {
+        return result.setWithOffset(worldPosition, multiBlockType.getRootOffset(getIndex(multiBlockType, blockState), getFacing(blockState)));
     }
 
     public static BlockPos worldPosition(MultiBlockType multiBlockType, BlockPos root, BlockState blockState)
     {
-        var localPositions = multiBlockType.getLocalPositions();
-        var index = getIndex(multiBlockType, blockState);
-        var localPosition = correctedLocalPosition(localPositions.get(index), blockState);
-        return root.offset(localPosition);
+        return root.offset(multiBlockType.getOffset(getIndex(multiBlockType, blockState), getFacing(blockState)));
+    }
+
+    public static BlockPos.MutableBlockPos worldPosition(MultiBlockType multiBlockType, BlockPos root, BlockState blockState, BlockPos.MutableBlockPos result)
+    {
+        return result.setWithOffset(root, multiBlockType.getOffset(getIndex(multiBlockType, blockState), getFacing(blockState)));
     }
 
     public static BlockPos correctedLocalPosition(BlockPos localPosition, BlockState blockState)
     {
-        return blockState.getOptionalValue(HorizontalDirectionalBlock.FACING).map(facing -> rotateLocalPosition(localPosition, facing)).orElse(localPosition);
+        var facing = getFacing(blockState);
+        return facing == null ? localPosition : rotateLocalPosition(localPosition, facing);
     }
 
     public static BlockPos rotateLocalPosition(BlockPos localPosition, Direction facing)
     {
-        return localPosition.rotate(switch(facing) {
-            default -> Rotation.NONE;
-            case NORTH -> Rotation.CLOCKWISE_90;
-            case SOUTH -> Rotation.COUNTERCLOCKWISE_90;
-            case EAST -> Rotation.CLOCKWISE_180;
-        });
+        return localPosition.rotate(MultiBlockType.rotation(facing));
     }
 
     @UnknownNullability("Nullable when 'mapper' returns null")
@@ -184,31 +180,44 @@ public final class MultiBlockComponent extends BaseBlockComponent
                 return;
 
             var blockType = component.getGameObject();
+            var facing = getFacing(blockState);
+            var mutation = new MultiBlockMutation(level, blockType, multiBlockType, pos);
+            var worldPosition = new BlockPos.MutableBlockPos();
 
             for(var i = 0; i < multiBlockType.size(); i++)
             {
-                var newBlockState = setIndex(multiBlockType, blockState, i);
-                var worldPosition = worldPosition(multiBlockType, pos, newBlockState);
+                worldPosition.setWithOffset(pos, multiBlockType.getOffset(i, facing));
 
                 if(worldPosition.equals(pos))
                     continue;
 
-                if(!level.getBlockState(worldPosition).is(blockType))
-                    level.destroyBlock(worldPosition, true, placer);
+                var existingBlockState = level.getBlockState(worldPosition);
 
-                // level.setBlockAndUpdate(worldPosition, newBlockState);
-                level.setBlock(worldPosition, newBlockState, Block.UPDATE_ALL);
+                // destroy whatever is being replaced the same way Level.destroyBlock would
+                // the mutation overwrites it below
+                if(!existingBlockState.isAir() && !existingBlockState.is(blockType))
+                {
+                    if(!(existingBlockState.getBlock() instanceof BaseFireBlock))
+                        level.levelEvent(LevelEvent.PARTICLES_DESTROY_BLOCK, worldPosition, Block.getId(existingBlockState));
 
-                if(placer instanceof ServerPlayer sPlayer)
-                    CriteriaTriggers.PLACED_BLOCK.trigger(sPlayer, worldPosition, stack);
+                    var blockEntity = existingBlockState.hasBlockEntity() ? level.getBlockEntity(worldPosition) : null;
+                    Block.dropResources(existingBlockState, level, worldPosition, blockEntity, placer, ItemStack.EMPTY);
+                    level.gameEvent(GameEvent.BLOCK_DESTROY, worldPosition, GameEvent.Context.of(placer, existingBlockState));
+                }
 
-                level.gameEvent(GameEvent.BLOCK_PLACE, worldPosition, GameEvent.Context.of(placer, newBlockState));
+                mutation.set(worldPosition, setIndex(multiBlockType, blockState, i));
+            }
 
-                if(playSounds)
-                {
-                    var soundType = newBlockState.getSoundType();
-                    level.playSound(placer instanceof Player plr ? plr : null, worldPosition, soundType.getPlaceSound(), SoundSource.BLOCKS, (soundType.getVolume() + 1F) / 2F, soundType.getPitch() * .8F);
-                }
+            if(!mutation.commit())
+                return;
+
+            // single event & sound for the structure as a whole rather than per part
+            level.gameEvent(GameEvent.BLOCK_PLACE, pos, GameEvent.Context.of(placer, blockState));
+
+            if(playSounds)
+            {
+                var soundType = blockState.getSoundType();
+                level.playSound(placer instanceof Player plr ? plr : null, pos, soundType.getPlaceSound(), SoundSource.BLOCKS, (soundType.getVolume() + 1F) / 2F, soundType.getPitch() * .8F);
             }
         });
     }
@@ -219,108 +228,40 @@ public final class MultiBlockComponent extends BaseBlockComponent
             var multiBlockType = component.getMultiBlockType();
             var blockType = component.getGameObject();
             var root = rootPosition(multiBlockType, pos, blockState);
+            var facing = getFacing(blockState);
+            var mutation = new MultiBlockMutation(level, blockType, multiBlockType, root);
+            var worldPosition = new BlockPos.MutableBlockPos();
 
             for(var i = 0; i < multiBlockType.size(); i++)
             {
-                var worldPosition = worldPosition(multiBlockType, root, setIndex(multiBlockType, blockState, i));
+                worldPosition.setWithOffset(root, multiBlockType.getOffset(i, facing));
 
                 if(worldPosition.equals(pos))
                     continue;
 
-                if(level.getBlockState(worldPosition).is(blockType))
-                    destroyBlock(level, worldPosition, false, destroyer);
+                var partBlockState = level.getBlockState(worldPosition);
+
+                if(!partBlockState.is(blockType))
+                    continue;
+
+                // LevelEvent.PARTICLES_DESTROY_BLOCK - places destroy sound and break fx
+                // but we want just the fx, rather than playing the breaking sound for every part
+                level.addDestroyBlockEffect(worldPosition, partBlockState);
+                mutation.set(worldPosition, level.getFluidState(worldPosition).createLegacyBlock());
             }
 
-            if(!root.equals(pos) && level.getBlockState(root).is(blockType))
-                destroyBlock(level, root, false, destroyer);
+            if(mutation.commit())
+                level.gameEvent(GameEvent.BLOCK_DESTROY, root, GameEvent.Context.of(destroyer, blockState));
         });
     }
 
-    private static boolean destroyBlock(Level level, BlockPos pos, boolean dropBlock, @Nullable LivingEntity destroyer)
-    {
-        // custom destroy block method
-        // to stop playing the block
-        // breaking sound for every block in multi block
-        var blockState = level.getBlockState(pos);
-
-        if(blockState.isAir())
-            return false;
-
-        var fluidState = level.getFluidState(pos);
-
-        if(!(blockState.getBlock() instanceof BaseFireBlock))
-        {
-            // LevelEvent.PARTICLES_DESTROY_BLOCK - places destroy sound and break fx
-            // but we want just the fx
-            // level.levelEvent(LevelEvent.PARTICLES_DESTROY_BLOCK, pos, Block.getId(blockState));
-            level.addDestroyBlockEffect(pos, blockState);
-        }
-
-        if(dropBlock)
-        {
-            var blockEntity = blockState.hasBlockEntity() ? level.getBlockEntity(pos) : null;
-            Block.dropResources(blockState, level, pos, blockEntity, destroyer, ItemStack.EMPTY);
-        }
-
-        var changed = level.setBlock(pos, fluidState.createLegacyBlock(), Block.UPDATE_ALL);
-
-        if(changed)
-        {
-            //level.addDestroyBlockEffect(pos, blockState);
-            level.gameEvent(GameEvent.BLOCK_DESTROY, pos, GameEvent.Context.of(destroyer, blockState));
-        }
-
-        return changed;
-    }
-
-    // TODO: Move somewhere more common
     public static boolean canPlaceAt(Level level, BlockPos placePos, @Nullable BlockState placeBlockState, @Nullable LivingEntity placer)
     {
-        if(level.isOutsideBuildHeight(placePos))
-            return false;
-        if(!level.getWorldBorder().isWithinBounds(placePos))
-            return false;
-        if(!level.getBlockState(placePos).canBeReplaced())
-            return false;
-        if(placeBlockState == null)
-            return true;
-        if(!placeBlockState.getBlock().isEnabled(level.enabledFeatures()))
-            return false;
-        if(!placeBlockState.canSurvive(level, placePos))
-            return false;
-
-        var collisionContext = placer == null ? CollisionContext.empty() : CollisionContext.of(placer);
-
-        if(!level.isUnobstructed(placeBlockState, placePos, collisionContext))
-            return false;
-
-        return placeBlockState.canSurvive(level, placePos);
+        return MultiBlockPlacement.validate(level, placePos, placeBlockState, placer).isSuccess();
     }
 
     public static boolean canPlaceAt(BlockPlaceContext context, @Nullable BlockPos posOverride, @Nullable BlockState placeBlockState)
     {
-        var level = context.getLevel();
-        var placePos = posOverride == null ? context.getClickedPos() : posOverride;
-        var placer = context.getPlayer();
-
-        if(level.isOutsideBuildHeight(placePos))
-            return false;
-        if(!level.getWorldBorder().isWithinBounds(placePos))
-            return false;
-        if(!level.getBlockState(placePos).canBeReplaced(context))
-            return false;
-        if(placeBlockState == null)
-            return true;
-        if(!placeBlockState.getBlock().isEnabled(level.enabledFeatures()))
-            return false;
-        if(!placeBlockState.canSurvive(level, placePos))
-            return false;
-
-        var collisionContext = placer == null ? CollisionContext.empty() : CollisionContext.of(placer);
-
-        if(!level.isUnobstructed(placeBlockState, placePos, collisionContext))
-            return false;
-
-        return placeBlockState.canSurvive(level, placePos);
+        return MultiBlockPlacement.validate(context, posOverride == null ? context.getClickedPos() : posOverride, placeBlockState).isSuccess();
     }
 }
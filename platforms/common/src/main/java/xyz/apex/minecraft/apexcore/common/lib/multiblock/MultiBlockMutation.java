@@ -0,0 +1,150 @@
+package xyz.apex.minecraft.apexcore.common.lib.multiblock;
+
+import com.google.common.collect.Lists;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.List;
+
+/**
+ * Batched block mutation used when placing or destroying multi blocks.
+ * <p>
+ * Every part is written with neighbor and shape updates suppressed, once all parts have been written
+ * {@link #commit()} notifies only those blocks surrounding the outer boundary of the mutated positions.
+ * <p>
+ * Client updates are still flagged per position, which the server chunk holder batches into a single
+ * section update at the end of the tick.
+ */
+public final class MultiBlockMutation
+{
+    private static final int SUPPRESSED_FLAGS = Block.UPDATE_CLIENTS | Block.UPDATE_KNOWN_SHAPE;
+    private static final Direction[] DIRECTIONS = Direction.values();
+    // mutations currently writing a part on this thread, innermost last
+    private static final ThreadLocal<List<MultiBlockMutation>> ACTIVE = ThreadLocal.withInitial(Lists::newArrayList);
+
+    private final Level level;
+    private final Block block;
+    private final MultiBlockType multiBlockType;
+    private final BlockPos root;
+    private final LongSet positions = new LongOpenHashSet();
+    private final List<BlockPos> changed = Lists.newArrayList();
+
+    /**
+     * @param level Level to be mutated.
+     * @param block          Block type passed along to neighbors when notified.
+     * @param multiBlockType Multi block type being mutated.
+     * @param root           Root position of the multi block being mutated.
+     */
+    public MultiBlockMutation(Level level, Block block, MultiBlockType multiBlockType, BlockPos root)
+    {
+        this.level = level;
+        this.block = block;
+        this.multiBlockType = multiBlockType;
+        this.root = root.immutable();
+    }
+
+    /**
+     * Writes the given block state without notifying neighbors.
+     *
+     * @param pos        Position to be mutated.
+     * @param blockState Block state to be written.
+     * @return True if the block state was changed.
+     */
+    public boolean set(BlockPos pos, BlockState blockState)
+    {
+        var active = ACTIVE.get();
+        active.add(this);
+
+        boolean result;
+
+        try
+        {
+            result = level.setBlock(pos, blockState, SUPPRESSED_FLAGS);
+        }
+        finally
+        {
+            active.remove(active.size() - 1);
+        }
+
+        if(result)
+        {
+            var immutable = pos.immutable();
+
+            if(positions.add(immutable.asLong()))
+                changed.add(immutable);
+        }
+
+        return result;
+    }
+
+    /**
+     * Runs a single neighbor and shape update pass around the outer boundary of all mutated positions.
+     * <p>
+     * Positions which were mutated as part of this batch are never notified of each other.
+     *
+     * @return True if any position was changed as part of this batch.
+     */
+    public boolean commit()
+    {
+        if(changed.isEmpty())
+            return false;
+
+        var neighborPos = new BlockPos.MutableBlockPos();
+        var notified = new LongOpenHashSet();
+
+        for(var pos : changed)
+        {
+            var blockState = level.getBlockState(pos);
+
+            for(var direction : DIRECTIONS)
+            {
+                neighborPos.setWithOffset(pos, direction);
+
+                if(positions.contains(neighborPos.asLong()))
+                    continue;
+
+                level.neighborShapeChanged(direction.getOpposite(), blockState, neighborPos, pos, Block.UPDATE_ALL, Block.UPDATE_LIMIT);
+
+                if(notified.add(neighborPos.asLong()))
+                    level.neighborChanged(neighborPos.immutable(), block, pos);
+            }
+
+            if(!level.isClientSide && blockState.hasAnalogOutputSignal())
+                level.updateNeighbourForOutputSignal(pos, blockState.getBlock());
+        }
+
+        positions.clear();
+        changed.clear();
+        return true;
+    }
+
+    /**
+     * Returns true while the current thread is writing a part of a batched mutation for the given multi block.
+     * <p>
+     * Used by multi block components to skip reacting to their own parts being placed or removed,
+     * other multi blocks whose parts are overwritten by the mutation still react as normal.
+     *
+     * @param multiBlockType Multi block type to be checked.
+     * @param root           Root position of the multi block to be checked.
+     * @return True while the current thread is writing a part of a batched mutation for the given multi block.
+     */
+    public static boolean isMutating(MultiBlockType multiBlockType, BlockPos root)
+    {
+        var active = ACTIVE.get();
+
+        for(var i = active.size() - 1; i >= 0; i--)
+        {
+            var mutation = active.get(i);
+
+            if(mutation.multiBlockType == multiBlockType && mutation.root.equals(root))
+                return true;
+        }
+
+        return false;
+    }
+}
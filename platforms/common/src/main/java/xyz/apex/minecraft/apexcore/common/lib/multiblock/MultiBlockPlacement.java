@@ -0,0 +1,183 @@
+package xyz.apex.minecraft.apexcore.common.lib.multiblock;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.item.context.BlockPlaceContext;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.phys.shapes.CollisionContext;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Placement validation for multi blocks and single block positions.
+ * <p>
+ * Parts are grouped by the chunk they fall into and visited in column order within each chunk,
+ * reusing a single mutable position and chunk reference, validation stops at the first failing part.
+ */
+public final class MultiBlockPlacement
+{
+    private static final Result SUCCESS = new Result(Status.SUCCESS, -1, null);
+
+    private final Level level;
+    @Nullable private final BlockPlaceContext context;
+    private final CollisionContext collisionContext;
+    private final BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+    @Nullable private LevelChunk chunk = null;
+
+    private MultiBlockPlacement(Level level, @Nullable BlockPlaceContext context, @Nullable Entity placer)
+    {
+        this.level = level;
+        this.context = context;
+
+        collisionContext = placer == null ? CollisionContext.empty() : CollisionContext.of(placer);
+    }
+
+    private Result validateStructure(MultiBlockType multiBlockType, BlockPos root, BlockState blockState)
+    {
+        if(!blockState.getBlock().isEnabled(level.enabledFeatures()))
+            return new Result(Status.DISABLED, -1, root);
+
+        var facing = MultiBlockComponent.getFacing(blockState);
+
+        for(var index : multiBlockType.placementOrder(facing, root))
+        {
+            pos.setWithOffset(root, multiBlockType.getOffset(index, facing));
+            var status = validatePart(MultiBlockComponent.setIndex(multiBlockType, blockState, index));
+
+            if(status != Status.SUCCESS)
+                return new Result(status, index, pos.immutable());
+        }
+
+        return SUCCESS;
+    }
+
+    private Result validatePosition(BlockPos placePos, @Nullable BlockState placeBlockState)
+    {
+        if(placeBlockState != null && !placeBlockState.getBlock().isEnabled(level.enabledFeatures()))
+            return new Result(Status.DISABLED, -1, placePos);
+
+        pos.set(placePos);
+        var status = validatePart(placeBlockState);
+        return status == Status.SUCCESS ? SUCCESS : new Result(status, -1, placePos.immutable());
+    }
+
+    private Status validatePart(@Nullable BlockState placeBlockState)
+    {
+        if(level.isOutsideBuildHeight(pos))
+            return Status.OUTSIDE_BUILD_HEIGHT;
+        if(!level.getWorldBorder().isWithinBounds(pos))
+            return Status.OUTSIDE_WORLD_BORDER;
+
+        var existingBlockState = chunk(pos).getBlockState(pos);
+
+        if(!(context == null ? existingBlockState.canBeReplaced() : existingBlockState.canBeReplaced(context)))
+            return Status.NOT_REPLACEABLE;
+        if(placeBlockState == null)
+            return Status.SUCCESS;
+        if(!placeBlockState.canSurvive(level, pos))
+            return Status.CANNOT_SURVIVE;
+        if(!level.isUnobstructed(placeBlockState, pos, collisionContext))
+            return Status.OBSTRUCTED;
+
+        return Status.SUCCESS;
+    }
+
+    private LevelChunk chunk(BlockPos pos)
+    {
+        var chunkX = SectionPos.blockToSectionCoord(pos.getX());
+        var chunkZ = SectionPos.blockToSectionCoord(pos.getZ());
+
+        if(chunk == null || chunk.getPos().x != chunkX || chunk.getPos().z != chunkZ)
+            chunk = level.getChunk(chunkX, chunkZ);
+
+        return chunk;
+    }
+
+    /**
+     * Validates placement of every part of the given multi block.
+     * <p>
+     * Existing blocks must be replaceable without any placement context.
+     *
+     * @param level          Level to validate against.
+     * @param multiBlockType Multi block type to be validated.
+     * @param root           Root position of the multi block.
+     * @param blockState     Root block state of the multi block.
+     * @param placer         Entity placing the multi block.
+     * @return Result of validation, describing the first failing part if any.
+     */
+    public static Result validate(Level level, MultiBlockType multiBlockType, BlockPos root, BlockState blockState, @Nullable Entity placer)
+    {
+        return new MultiBlockPlacement(level, null, placer).validateStructure(multiBlockType, root, blockState);
+    }
+
+    /**
+     * Validates placement of every part of the given multi block.
+     * <p>
+     * Existing blocks must be replaceable by the given placement context.
+     *
+     * @param context        Context of the placement.
+     * @param multiBlockType Multi block type to be validated.
+     * @param root           Root position of the multi block.
+     * @param blockState     Root block state of the multi block.
+     * @return Result of validation, describing the first failing part if any.
+     */
+    public static Result validate(BlockPlaceContext context, MultiBlockType multiBlockType, BlockPos root, BlockState blockState)
+    {
+        return new MultiBlockPlacement(context.getLevel(), context, context.getPlayer()).validateStructure(multiBlockType, root, blockState);
+    }
+
+    /**
+     * Validates placement of a single block.
+     *
+     * @param level           Level to validate against.
+     * @param placePos        Position to be validated.
+     * @param placeBlockState Block state to be placed, if null only the existing block is validated.
+     * @param placer          Entity placing the block.
+     * @return Result of validation.
+     */
+    public static Result validate(Level level, BlockPos placePos, @Nullable BlockState placeBlockState, @Nullable Entity placer)
+    {
+        return new MultiBlockPlacement(level, null, placer).validatePosition(placePos, placeBlockState);
+    }
+
+    /**
+     * Validates placement of a single block.
+     *
+     * @param context         Context of the placement.
+     * @param placePos        Position to be validated.
+     * @param placeBlockState Block state to be placed, if null only the existing block is validated.
+     * @return Result of validation.
+     */
+    public static Result validate(BlockPlaceContext context, BlockPos placePos, @Nullable BlockState placeBlockState)
+    {
+        return new MultiBlockPlacement(context.getLevel(), context, context.getPlayer()).validatePosition(placePos, placeBlockState);
+    }
+
+    /**
+     * Result of placement validation.
+     *
+     * @param status Status of validation.
+     * @param index  Index of the failing part, or -1 if not tied to a specific part.
+     * @param pos    Position of the failing part, or null on success.
+     */
+    public record Result(Status status, int index, @Nullable BlockPos pos)
+    {
+        public boolean isSuccess()
+        {
+            return status == Status.SUCCESS;
+        }
+    }
+
+    public enum Status
+    {
+        SUCCESS,
+        DISABLED,
+        OUTSIDE_BUILD_HEIGHT,
+        OUTSIDE_WORLD_BORDER,
+        NOT_REPLACEABLE,
+        CANNOT_SURVIVE,
+        OBSTRUCTED
+    }
+}
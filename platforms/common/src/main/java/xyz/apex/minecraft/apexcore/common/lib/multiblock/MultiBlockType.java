@@ -5,22 +5,42 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrays;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.block.Rotation;
 import net.minecraft.world.level.block.state.properties.IntegerProperty;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.IntStream;
 
 public final class MultiBlockType
 {
     private static final Int2ObjectMap<IntegerProperty> BLOCK_STATE_PROPERTIES = new Int2ObjectOpenHashMap<>();
 
+    private static final Rotation[] ROTATIONS = Rotation.values();
+
     private final List<BlockPos> localPositions;
     private final boolean renderAtOriginOnly;
+    private final IntegerProperty property;
+
+    // [rotation][index] offsets from the root to each part and from each part back to the root
+    private final BlockPos[][] offsets;
+    private final BlockPos[][] rootOffsets;
+    // [rotation] part indices in column order (x, z, y)
+    private final int[][] placementOrders;
+    // [rotation] min x, min z, max x, max z of the rotated offsets
+    private final int[][] horizontalBounds;
 
     private MultiBlockType(List<String[]> pattern, boolean renderAtOriginOnly)
     {
         this.renderAtOriginOnly = renderAtOriginOnly;
 
+        // indices are persisted through the multi_block_index property of already placed parts
+        // hash set iteration order must be kept so existing worlds keep resolving the same offsets
         var positions = Sets.<BlockPos>newHashSet();
 
         for(var y = 0; y < pattern.size(); y++)
@@ -42,6 +62,41 @@ public final class MultiBlockType
         }
 
         localPositions = ImmutableList.copyOf(positions);
+        property = property(localPositions.size());
+
+        offsets = new BlockPos[ROTATIONS.length][];
+        rootOffsets = new BlockPos[ROTATIONS.length][];
+        placementOrders = new int[ROTATIONS.length][];
+        horizontalBounds = new int[ROTATIONS.length][];
+
+        for(var rotation : ROTATIONS)
+        {
+            var rotationOffsets = new BlockPos[localPositions.size()];
+            var rotationRootOffsets = new BlockPos[localPositions.size()];
+            var bounds = new int[] { Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE };
+
+            for(var i = 0; i < localPositions.size(); i++)
+            {
+                var offset = localPositions.get(i).rotate(rotation);
+                rotationOffsets[i] = offset;
+                rotationRootOffsets[i] = BlockPos.ZERO.subtract(offset);
+
+                bounds[0] = Math.min(bounds[0], offset.getX());
+                bounds[1] = Math.min(bounds[1], offset.getZ());
+                bounds[2] = Math.max(bounds[2], offset.getX());
+                bounds[3] = Math.max(bounds[3], offset.getZ());
+            }
+
+            horizontalBounds[rotation.ordinal()] = bounds;
+
+            offsets[rotation.ordinal()] = rotationOffsets;
+            rootOffsets[rotation.ordinal()] = rotationRootOffsets;
+            placementOrders[rotation.ordinal()] = IntStream.range(0, rotationOffsets.length)
+                    .boxed()
+                    .sorted(Comparator.<Integer>comparingInt(i -> rotationOffsets[i].getX()).thenComparingInt(i -> rotationOffsets[i].getZ()).thenComparingInt(i -> rotationOffsets[i].getY()))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
     }
 
     public boolean renderAtOriginOnly()
@@ -54,6 +109,48 @@ public final class MultiBlockType
         return localPositions;
     }
 
+    public BlockPos getLocalPosition(int index)
+    {
+        return localPositions.get(index);
+    }
+
+    // offset from the root position to the part at the given index
+    public BlockPos getOffset(int index, @Nullable Direction facing)
+    {
+        return offsets[rotation(facing).ordinal()][index];
+    }
+
+    // offset from the part at the given index back to the root position
+    public BlockPos getRootOffset(int index, @Nullable Direction facing)
+    {
+        return rootOffsets[rotation(facing).ordinal()][index];
+    }
+
+    // part indices grouped by the chunk they fall into when placed at the given root, column order within each chunk
+    // structures fitting within a single chunk use the precomputed order as is
+    int[] placementOrder(@Nullable Direction facing, BlockPos root)
+    {
+        var rotation = rotation(facing).ordinal();
+        var order = placementOrders[rotation];
+        var bounds = horizontalBounds[rotation];
+        var rootX = root.getX();
+        var rootZ = root.getZ();
+
+        if(SectionPos.blockToSectionCoord(rootX + bounds[0]) == SectionPos.blockToSectionCoord(rootX + bounds[2]) && SectionPos.blockToSectionCoord(rootZ + bounds[1]) == SectionPos.blockToSectionCoord(rootZ + bounds[3]))
+            return order;
+
+        var rotationOffsets = offsets[rotation];
+        var sorted = order.clone();
+
+        // stable sort, keeps column order between parts sharing a chunk
+        IntArrays.mergeSort(sorted, (a, b) -> {
+            var result = Integer.compare(SectionPos.blockToSectionCoord(rootX + rotationOffsets[a].getX()), SectionPos.blockToSectionCoord(rootX + rotationOffsets[b].getX()));
+            return result != 0 ? result : Integer.compare(SectionPos.blockToSectionCoord(rootZ + rotationOffsets[a].getZ()), SectionPos.blockToSectionCoord(rootZ + rotationOffsets[b].getZ()));
+        });
+
+        return sorted;
+    }
+
     public int size()
     {
         return localPositions.size();
@@ -61,7 +158,7 @@ public final class MultiBlockType
 
     public IntegerProperty getProperty()
     {
-        return property(localPositions.size());
+        return property;
     }
 
     public static Builder builder()
@@ -69,6 +166,19 @@ public final class MultiBlockType
         return new Builder();
     }
 
+    public static Rotation rotation(@Nullable Direction facing)
+    {
+        if(facing == null)
+            return Rotation.NONE;
+
+        return switch(facing) {
+            default -> Rotation.NONE;
+            case NORTH -> Rotation.CLOCKWISE_90;
+            case SOUTH -> Rotation.COUNTERCLOCKWISE_90;
+            case EAST -> Rotation.CLOCKWISE_180;
+        };
+    }
+
     public static IntegerProperty property(int max)
     {
         return BLOCK_STATE_PROPERTIES.computeIfAbsent(max, $ -> IntegerProperty.create("multi_block_index", 0, $));
@@ -0,0 +1,15 @@
+package xyz.apex.minecraft.apexcore.common.lib.network;
+
+/**
+ * Marker interface for packet data which may be coalesced.
+ * <p>
+ * When multiple packets with matching keys are received from the same sender within a single tick,
+ * only the latest is handled.
+ */
+public interface CoalescingPacket
+{
+    /**
+     * @return Key used to coalesce this packet data, must implement equals & hashCode.
+     */
+    Object coalesceKey();
+}
@@ -37,6 +37,19 @@ public interface NetworkManager
      */
     <T> S2CPacket<T> registerClientBound(String packetKey, Encoder<T> encoder, Decoder<T> decoder, Supplier<Supplier<S2CPacket.Handler<T>>> handler);
 
+    /**
+     * Enables batching for this network manager.
+     * <p>
+     * Once enabled, packets sent to a single client or to the server from the main thread are collected
+     * during the tick and flushed at the end of the tick as a single bundle, compressed when large.
+     * Broadcasts are never batched, pending bundles are flushed ahead of them to keep the send order for each player.
+     * <p>
+     * Must be invoked on both sides, at the same point during packet registration.
+     *
+     * @return This network manager.
+     */
+    NetworkManager enableBatching();
+
     /**
      * @return Owner id for this network manager.
      */
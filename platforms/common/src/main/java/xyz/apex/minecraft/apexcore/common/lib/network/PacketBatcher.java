@@ -0,0 +1,445 @@
+package xyz.apex.minecraft.apexcore.common.lib.network;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.client.Minecraft;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Batches outgoing packets for a single network manager.
+ * <p>
+ * Packets sent to a single client or to the server during a tick are collected per connection
+ * as length prefixed entries, encoded straight into pooled buffers and flushed once at the end of the tick within a single bundle packet,
+ * bundles exceeding {@link #COMPRESSION_THRESHOLD} bytes are compressed.
+ * <p>
+ * Entries are identified by their packets network index, both sides must have verified their packet tables match.
+ * Received entries are handled through the {@link PacketQueue}, so coalescing applies the same as for unbatched packets.
+ * <p>
+ * Only packets sent from the main thread are batched, anything else is sent immediately.
+ * Pending client bound bundles are flushed before any broadcast from the same manager,
+ * so a player always receives packets in the order they were sent.
+ */
+@ApiStatus.Internal
+public final class PacketBatcher
+{
+    private static final List<PacketBatcher> BATCHERS = new CopyOnWriteArrayList<>();
+    private static final int COMPRESSION_THRESHOLD = 256;
+    // vanilla limits custom payloads to 32KiB server bound & 1MiB client bound
+    // leave some room for the bundle header
+    private static final int MAX_SERVER_BOUND_SIZE = 32_000;
+    private static final int MAX_CLIENT_BOUND_SIZE = 1_000_000;
+    // upper limits for inflated bundles, guards against malicious payloads
+    // server bound bundles are flushed at MAX_SERVER_BOUND_SIZE, leave headroom for a single oversized entry only
+    private static final int MAX_CLIENT_BOUND_INFLATED_SIZE = 8_388_608;
+    private static final int MAX_SERVER_BOUND_INFLATED_SIZE = 262_144;
+    private static final int INITIAL_BUNDLE_CAPACITY = 256;
+
+    private final ToIntFunction<Packet<?>> packetIndex;
+    private final S2CPacket<Bundle> clientBoundBundle;
+    private final C2SPacket<Bundle> serverBoundBundle;
+    // packets always sent immediately, the bundles themselves & anything bundles depend on to be decoded
+    private final Set<Packet<?>> unbatched = new ReferenceOpenHashSet<>();
+    // thread client bound packets were last queued from, pending bundles are only ever touched from it
+    @Nullable private volatile Thread batchingThread = null;
+    private final Map<ServerPlayer, FriendlyByteBuf> toClients = Maps.newLinkedHashMap();
+    @Nullable private FriendlyByteBuf toServer = null;
+
+    /**
+     * @param manager      Network manager to batch packets for.
+     * @param packetIndex  Network index of the given packet within the manager.
+     * @param packetLookup Lookup for packets by network index, must throw for unknown indices.
+     * @param unbatched    Packets which must never be batched, such as the packet table verifying network indices.
+     */
+    public PacketBatcher(NetworkManager manager, ToIntFunction<Packet<?>> packetIndex, IntFunction<? extends Packet<?>> packetLookup, Packet<?>... unbatched)
+    {
+        this.packetIndex = packetIndex;
+
+        clientBoundBundle = manager.registerClientBound("internal/bundle", Bundle::encode, buffer -> Bundle.decode(buffer, packetLookup, S2CPacket.class, MAX_CLIENT_BOUND_INFLATED_SIZE), () -> () -> (client, $, bundle) -> bundle.handle(client));
+        serverBoundBundle = manager.registerServerBound("internal/bundle", Bundle::encode, buffer -> Bundle.decode(buffer, packetLookup, C2SPacket.class, MAX_SERVER_BOUND_INFLATED_SIZE), () -> () -> (server, $, sender, bundle) -> bundle.handle(server, sender));
+
+        this.unbatched.add(clientBoundBundle);
+        this.unbatched.add(serverBoundBundle);
+        this.unbatched.addAll(Arrays.asList(unbatched));
+
+        BATCHERS.add(this);
+    }
+
+    /**
+     * Queues the given packet to be sent to the given client at the end of the tick.
+     *
+     * @return True if the packet was queued, false if it should be sent immediately.
+     */
+    public <T> boolean queue(ServerPlayer player, S2CPacket<T> packet, T packetData)
+    {
+        if(unbatched.contains(packet) || !player.server.isSameThread())
+            return false;
+
+        batchingThread = Thread.currentThread();
+
+        var buffer = toClients.get(player);
+
+        if(buffer == null)
+        {
+            buffer = PacketBuffers.pooled(INITIAL_BUNDLE_CAPACITY);
+            toClients.put(player, buffer);
+        }
+
+        var overflow = append(buffer, packet, packetData, MAX_CLIENT_BOUND_SIZE);
+
+        if(overflow != null)
+        {
+            flush(player, buffer);
+            toClients.put(player, overflow);
+        }
+
+        return true;
+    }
+
+    /**
+     * Queues the given packet to be sent to the server at the end of the tick.
+     *
+     * @return True if the packet was queued, false if it should be sent immediately.
+     */
+    public <T> boolean queue(C2SPacket<T> packet, T packetData)
+    {
+        if(unbatched.contains(packet) || !Minecraft.getInstance().isSameThread())
+            return false;
+
+        if(toServer == null)
+            toServer = PacketBuffers.pooled(INITIAL_BUNDLE_CAPACITY);
+
+        var overflow = append(toServer, packet, packetData, MAX_SERVER_BOUND_SIZE);
+
+        if(overflow != null)
+        {
+            flushToServer();
+            toServer = overflow;
+        }
+
+        return true;
+    }
+
+    // entry = packet index, length of packet data, packet data
+    // packet data is encoded straight into the bundle, length is patched in afterwards
+    // returns a buffer holding only the new entry if the bundle grew too large, everything before it must be flushed first
+    @Nullable
+    private <T> FriendlyByteBuf append(FriendlyByteBuf buffer, Packet<T> packet, T packetData, int maxSize)
+    {
+        var entryStart = buffer.writerIndex();
+
+        try
+        {
+            buffer.writeVarInt(packetIndex.applyAsInt(packet));
+            var lengthIndex = buffer.writerIndex();
+            buffer.writeInt(0);
+            packet.encoder().encode(packetData, buffer);
+            buffer.setInt(lengthIndex, buffer.writerIndex() - lengthIndex - Integer.BYTES);
+        }
+        catch(RuntimeException e)
+        {
+            // drop the partially written entry, keep everything queued before it
+            buffer.writerIndex(entryStart);
+            throw e;
+        }
+
+        var entryLength = buffer.writerIndex() - entryStart;
+
+        if(buffer.writerIndex() <= maxSize || entryStart == 0)
+            return null;
+
+        var overflow = PacketBuffers.pooled(entryLength);
+        overflow.writeBytes(buffer, entryStart, entryLength);
+        buffer.writerIndex(entryStart);
+        return overflow;
+    }
+
+    /**
+     * Flushes every pending client bound bundle ahead of a broadcast, so broadcasts never overtake batched packets.
+     * <p>
+     * Broadcasts from any other thread than the one packets are batched on have no defined order and flush nothing.
+     */
+    public void flushBeforeBroadcast()
+    {
+        if(Thread.currentThread() == batchingThread)
+            flushToClients();
+    }
+
+    private void flush(ServerPlayer player, @Nullable FriendlyByteBuf buffer)
+    {
+        if(buffer == null)
+            return;
+
+        var payload = buffer.readableBytes() == 0 ? null : Bundle.toByteArray(buffer);
+        buffer.release();
+
+        if(payload != null && !player.hasDisconnected())
+            clientBoundBundle.sendToClient(player, new Bundle(payload));
+    }
+
+    private void flushToServer()
+    {
+        var buffer = toServer;
+        toServer = null;
+
+        if(buffer == null)
+            return;
+
+        var payload = buffer.readableBytes() == 0 ? null : Bundle.toByteArray(buffer);
+        buffer.release();
+
+        if(payload != null)
+            serverBoundBundle.sendToServer(new Bundle(payload));
+    }
+
+    private void flushToClients()
+    {
+        if(toClients.isEmpty())
+            return;
+
+        var pending = Lists.newArrayList(toClients.entrySet());
+        toClients.clear();
+        pending.forEach(entry -> flush(entry.getKey(), entry.getValue()));
+    }
+
+    private void clearToClients()
+    {
+        toClients.values().forEach(FriendlyByteBuf::release);
+        toClients.clear();
+        batchingThread = null;
+    }
+
+    private void clearToServer()
+    {
+        if(toServer != null)
+            toServer.release();
+
+        toServer = null;
+    }
+
+    /**
+     * Flushes every pending client bound bundle, invoked at the end of each server tick.
+     */
+    public static void flushAllToClients()
+    {
+        BATCHERS.forEach(PacketBatcher::flushToClients);
+    }
+
+    /**
+     * Flushes every pending server bound bundle, invoked at the end of each client tick.
+     */
+    public static void flushAllToServer()
+    {
+        BATCHERS.forEach(PacketBatcher::flushToServer);
+    }
+
+    /**
+     * Discards every pending client bound bundle, invoked when the server stops.
+     */
+    public static void clearAllToClients()
+    {
+        BATCHERS.forEach(PacketBatcher::clearToClients);
+    }
+
+    /**
+     * Discards every pending server bound bundle, invoked when the client disconnects.
+     */
+    public static void clearAllToServer()
+    {
+        BATCHERS.forEach(PacketBatcher::clearToServer);
+    }
+
+    private static final class Bundle
+    {
+        @Nullable private final byte[] payload;
+        private final List<Entry<?>> entries;
+
+        private Bundle(byte[] payload)
+        {
+            this.payload = payload;
+            entries = List.of();
+        }
+
+        private Bundle(List<Entry<?>> entries)
+        {
+            payload = null;
+            this.entries = entries;
+        }
+
+        private void encode(FriendlyByteBuf buffer)
+        {
+            if(payload == null)
+                throw new IllegalStateException("Attempt to encode a received packet bundle");
+
+            var bytes = payload;
+            var length = bytes.length;
+
+            if(length < COMPRESSION_THRESHOLD)
+            {
+                buffer.writeVarInt(0);
+                buffer.writeByteArray(bytes);
+                return;
+            }
+
+            var deflater = new Deflater();
+
+            try
+            {
+                deflater.setInput(bytes);
+                deflater.finish();
+
+                var compressed = new byte[length];
+                var compressedLength = 0;
+
+                while(!deflater.finished())
+                {
+                    if(compressedLength == compressed.length)
+                    {
+                        // compression made things worse, send uncompressed
+                        buffer.writeVarInt(0);
+                        buffer.writeByteArray(bytes);
+                        return;
+                    }
+
+                    compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+                }
+
+                buffer.writeVarInt(length);
+                buffer.writeVarInt(compressedLength);
+                buffer.writeBytes(compressed, 0, compressedLength);
+            }
+            finally
+            {
+                deflater.end();
+            }
+        }
+
+        // entries are queued rather than handled inline so they coalesce like any other packet
+        // they are still handled during the current drain
+        private void handle(Minecraft client)
+        {
+            for(var entry : entries)
+            {
+                entry.enqueue(client);
+            }
+        }
+
+        private void handle(MinecraftServer server, ServerPlayer sender)
+        {
+            for(var entry : entries)
+            {
+                entry.enqueue(server, sender);
+            }
+        }
+
+        private static byte[] toByteArray(FriendlyByteBuf buffer)
+        {
+            var bytes = new byte[buffer.readableBytes()];
+            buffer.readBytes(bytes);
+            return bytes;
+        }
+
+        private static Bundle decode(FriendlyByteBuf buffer, IntFunction<? extends Packet<?>> lookup, Class<?> direction, int maxInflatedSize)
+        {
+            var inflatedLength = buffer.readVarInt();
+            var payload = new FriendlyByteBuf(Unpooled.wrappedBuffer(inflatedLength == 0 ? buffer.readByteArray(maxInflatedSize) : inflate(buffer, inflatedLength, maxInflatedSize)));
+            var entries = Lists.<Entry<?>>newArrayList();
+
+            while(payload.isReadable())
+            {
+                var packetIndex = payload.readVarInt();
+                var entryLength = payload.readInt();
+                Packet<?> packet = lookup.apply(packetIndex);
+
+                if(packet == null)
+                    throw new IllegalStateException("Received unknown bundled packet: '%d'".formatted(packetIndex));
+                if(!direction.isInstance(packet))
+                    throw new IllegalStateException("Received bundled packet for the wrong side: '%s'".formatted(packet.packetId()));
+
+                var entry = new FriendlyByteBuf(payload.readSlice(entryLength));
+                entries.add(Entry.decode(packet, entry));
+            }
+
+            return new Bundle(entries);
+        }
+
+        private static byte[] inflate(FriendlyByteBuf buffer, int inflatedLength, int maxInflatedSize)
+        {
+            if(inflatedLength < 0 || inflatedLength > maxInflatedSize)
+                throw new IllegalStateException("Packet bundle too large: '%d' bytes".formatted(inflatedLength));
+
+            // length is sent by the peer, never allocate more than what was actually received
+            var compressedLength = buffer.readVarInt();
+
+            if(compressedLength < 0 || compressedLength > buffer.readableBytes())
+                throw new IllegalStateException("Malformed packet bundle, invalid compressed length: '%d' bytes".formatted(compressedLength));
+
+            var compressed = new byte[compressedLength];
+            buffer.readBytes(compressed);
+
+            var inflater = new Inflater();
+
+            try
+            {
+                inflater.setInput(compressed);
+                var inflated = new byte[inflatedLength];
+                var length = inflater.inflate(inflated);
+
+                if(length != inflatedLength || !inflater.finished())
+                    throw new IllegalStateException("Packet bundle length mismatch, expected '%d' bytes".formatted(inflatedLength));
+
+                return inflated;
+            }
+            catch(DataFormatException e)
+            {
+                throw new IllegalStateException("Malformed packet bundle", e);
+            }
+            finally
+            {
+                inflater.end();
+            }
+        }
+    }
+
+    private record Entry<T>(Packet<T> packet, T packetData)
+    {
+        @SuppressWarnings("unchecked")
+        private void enqueue(Minecraft client)
+        {
+            var s2c = (S2CPacket<T>) packet;
+            PacketQueue.CLIENT.enqueue(packet, null, packetData, () -> s2c.handler().handle(client, packet.manager(), packetData));
+        }
+
+        @SuppressWarnings("unchecked")
+        private void enqueue(MinecraftServer server, ServerPlayer sender)
+        {
+            var c2s = (C2SPacket<T>) packet;
+
+            PacketQueue.SERVER.enqueue(packet, sender.getUUID(), packetData, () -> {
+                if(!sender.hasDisconnected())
+                    c2s.handler().handle(server, packet.manager(), sender, packetData);
+            });
+        }
+
+        private static <T> Entry<T> decode(Packet<T> packet, FriendlyByteBuf buffer)
+        {
+            return new Entry<>(packet, packet.decoder().decode(buffer));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package xyz.apex.minecraft.apexcore.common.lib.network;
+
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.FriendlyByteBuf;
+import org.jetbrains.annotations.ApiStatus;
+import xyz.apex.minecraft.apexcore.common.core.ApexCore;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Buffer allocation for encoding packets.
+ * <p>
+ * Payload buffers handed over to the platform are never released by it, so those are allocated unpooled
+ * but pre-sized from a per packet estimate to avoid regrowing while encoding.
+ * Scratch buffers whose lifetime we own, such as pending bundles, are taken from the pooled allocator.
+ */
+@ApiStatus.Internal
+public final class PacketBuffers
+{
+    private static final LongAdder ALLOCATIONS = new LongAdder();
+    // requested initial capacities versus bytes actually encoded, the difference is over-allocation
+    private static final LongAdder ALLOCATED_BYTES = new LongAdder();
+    private static final LongAdder ENCODED_BYTES = new LongAdder();
+    private static final LongAdder REGROWTHS = new LongAdder();
+    private static final LongAdder POOLED_ALLOCATIONS = new LongAdder();
+
+    private PacketBuffers()
+    {
+    }
+
+    /**
+     * Encodes the given packet data into a new buffer pre-sized from the given estimate.
+     *
+     * @param packet     Packet to be encoded.
+     * @param packetData Packet data to be encoded.
+     * @param sizeHint   Size estimate for the given packet, updated with the encoded size.
+     * @return Buffer containing the encoded packet data.
+     */
+    public static <T> FriendlyByteBuf encode(Packet<T> packet, T packetData, SizeHint sizeHint)
+    {
+        var initialCapacity = sizeHint.get();
+        var buffer = new FriendlyByteBuf(Unpooled.buffer(initialCapacity));
+        packet.encoder().encode(packetData, buffer);
+
+        var size = buffer.readableBytes();
+        sizeHint.record(size);
+
+        ALLOCATIONS.increment();
+        ALLOCATED_BYTES.add(initialCapacity);
+        ENCODED_BYTES.add(size);
+
+        if(buffer.capacity() > initialCapacity)
+            REGROWTHS.increment();
+
+        return buffer;
+    }
+
+    /**
+     * Allocates a pooled scratch buffer, must be released by the caller.
+     *
+     * @param initialCapacity Initial capacity of the buffer.
+     * @return Pooled scratch buffer.
+     */
+    public static FriendlyByteBuf pooled(int initialCapacity)
+    {
+        POOLED_ALLOCATIONS.increment();
+        return new FriendlyByteBuf(PooledByteBufAllocator.DEFAULT.heapBuffer(initialCapacity));
+    }
+
+    public static long allocations()
+    {
+        return ALLOCATIONS.sum();
+    }
+
+    public static long allocatedBytes()
+    {
+        return ALLOCATED_BYTES.sum();
+    }
+
+    public static long encodedBytes()
+    {
+        return ENCODED_BYTES.sum();
+    }
+
+    public static long regrowths()
+    {
+        return REGROWTHS.sum();
+    }
+
+    public static long pooledAllocations()
+    {
+        return POOLED_ALLOCATIONS.sum();
+    }
+
+    public static void logStatistics()
+    {
+        var allocatedBytes = allocatedBytes();
+        var encodedBytes = encodedBytes();
+        ApexCore.LOGGER.debug("Packet buffers: {} allocations ({} bytes requested, {} bytes encoded, {} bytes over-allocated, {} regrown), {} pooled allocations", allocations(), allocatedBytes, encodedBytes, Math.max(0L, allocatedBytes - encodedBytes), regrowths(), pooledAllocations());
+    }
+
+    /**
+     * Running size estimate for a single packet type.
+     * <p>
+     * Moving average of recently encoded sizes plus some headroom, capped at {@link #MAX_SIZE}.
+     * Recorded sizes are clamped to the cap as well, so a rare large packet can never inflate
+     * the allocations of the many small packets following it, oversized packets simply regrow.
+     */
+    public static final class SizeHint
+    {
+        private static final int INITIAL_SIZE = 64;
+        private static final int MAX_SIZE = 4096;
+
+        // racy updates are fine, this is only ever a hint
+        private volatile int average = INITIAL_SIZE;
+
+        public int get()
+        {
+            var current = average;
+            // 25% headroom so packets slightly above average do not regrow
+            return Math.min(current + (current >> 2), MAX_SIZE);
+        }
+
+        public void record(int size)
+        {
+            // exponential moving average, new sizes weighted by 1/8
+            var current = average;
+            average = current + ((Math.min(size, MAX_SIZE) - current) >> 3);
+        }
+    }
+}
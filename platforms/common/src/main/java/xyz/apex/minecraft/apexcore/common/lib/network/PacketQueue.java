@@ -0,0 +1,138 @@
+package xyz.apex.minecraft.apexcore.common.lib.network;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+import xyz.apex.minecraft.apexcore.common.core.ApexCore;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Queue of decoded packets waiting to be handled on the main thread.
+ * <p>
+ * Packets are queued from the network thread and drained once per tick by the platform,
+ * packet data implementing {@link CoalescingPacket} is collapsed down to the latest packet per key.
+ * <p>
+ * Packets queued from the main thread while draining, such as the contents of packet bundles,
+ * are handled within the same drain.
+ */
+@ApiStatus.Internal
+public final class PacketQueue
+{
+    public static final PacketQueue SERVER = new PacketQueue("Server");
+    public static final PacketQueue CLIENT = new PacketQueue("Client");
+
+    private final String name;
+    private final Queue<Entry> queue = new ConcurrentLinkedQueue<>();
+    // only ever touched by the draining thread
+    private final List<Entry> nested = Lists.newArrayList();
+    // network threads can never match the draining thread, so a stale read is harmless
+    @Nullable private Thread drainingThread = null;
+
+    private PacketQueue(String name)
+    {
+        this.name = name;
+    }
+
+    /**
+     * Queues the given packet to be handled during the next drain.
+     *
+     * @param packet     Packet being handled.
+     * @param sender     Sender of the packet, null for packets received from the server.
+     * @param packetData Decoded packet data.
+     * @param handler    Handler to be invoked on the main thread.
+     */
+    public void enqueue(Packet<?> packet, @Nullable UUID sender, Object packetData, Runnable handler)
+    {
+        var coalesceKey = packetData instanceof CoalescingPacket coalescing ? new CoalesceKey(packet, sender, coalescing.coalesceKey()) : null;
+        var entry = new Entry(coalesceKey, handler);
+
+        if(Thread.currentThread() == drainingThread)
+            nested.add(entry);
+        else
+            queue.add(entry);
+    }
+
+    /**
+     * Handles every queued packet, must be invoked from the main thread.
+     */
+    public void drain()
+    {
+        if(queue.isEmpty())
+            return;
+
+        var entries = Lists.<Entry>newArrayList();
+        Entry entry;
+
+        while((entry = queue.poll()) != null)
+        {
+            entries.add(entry);
+        }
+
+        drainingThread = Thread.currentThread();
+
+        try
+        {
+            handle(entries);
+
+            while(!nested.isEmpty())
+            {
+                var batch = Lists.newArrayList(nested);
+                nested.clear();
+                handle(batch);
+            }
+        }
+        finally
+        {
+            drainingThread = null;
+            nested.clear();
+        }
+    }
+
+    private void handle(List<Entry> entries)
+    {
+        var latest = Maps.<CoalesceKey, Entry>newHashMap();
+
+        for(var entry : entries)
+        {
+            if(entry.coalesceKey != null)
+                latest.put(entry.coalesceKey, entry);
+        }
+
+        for(var queued : entries)
+        {
+            // superseded by a later packet with a matching key
+            if(queued.coalesceKey != null && latest.get(queued.coalesceKey) != queued)
+                continue;
+
+            try
+            {
+                queued.handler.run();
+            }
+            catch(Exception e)
+            {
+                ApexCore.LOGGER.error("[{}] Error occurred while handling network packet", name, e);
+            }
+        }
+    }
+
+    /**
+     * Discards every queued packet, should be invoked when disconnecting.
+     */
+    public void clear()
+    {
+        queue.clear();
+    }
+
+    private record Entry(@Nullable CoalesceKey coalesceKey, Runnable handler)
+    {
+    }
+
+    private record CoalesceKey(Packet<?> packet, @Nullable UUID sender, Object key)
+    {
+    }
+}
@@ -1,7 +1,11 @@
 package xyz.apex.minecraft.apexcore.common.lib.network;
 
 import net.minecraft.client.Minecraft;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.chunk.LevelChunk;
 import org.jetbrains.annotations.ApiStatus;
 
 /**
@@ -25,6 +29,60 @@ public interface S2CPacket<T> extends Packet<T>
      */
     void sendToClient(ServerPlayer player, T packet);
 
+    /**
+     * Sends the given packet data to every connected client.
+     * <p>
+     * Packet data is encoded once and shared between every client.
+     *
+     * @param server Server to send the packet from.
+     * @param packet Packet data to be sent.
+     */
+    void sendToAllClients(MinecraftServer server, T packet);
+
+    /**
+     * Sends the given packet data to every client within the given level.
+     * <p>
+     * Packet data is encoded once and shared between every client.
+     *
+     * @param level  Level clients must be within.
+     * @param packet Packet data to be sent.
+     */
+    void sendToClientsIn(ServerLevel level, T packet);
+
+    /**
+     * Sends the given packet data to every client tracking the given chunk.
+     * <p>
+     * Packet data is encoded once and shared between every client.
+     *
+     * @param chunk  Chunk clients must be tracking.
+     * @param packet Packet data to be sent.
+     */
+    void sendToClientsTracking(LevelChunk chunk, T packet);
+
+    /**
+     * Sends the given packet data to every client tracking the given entity.
+     * <p>
+     * Packet data is encoded once and shared between every client.
+     *
+     * @param entity Entity clients must be tracking.
+     * @param packet Packet data to be sent.
+     */
+    void sendToClientsTracking(Entity entity, T packet);
+
+    /**
+     * Sends the given packet data to every client within the given radius of a position.
+     * <p>
+     * Packet data is encoded once and shared between every client.
+     *
+     * @param level  Level clients must be within.
+     * @param x      X coordinate of the position.
+     * @param y      Y coordinate of the position.
+     * @param z      Z coordinate of the position.
+     * @param radius Radius around the position clients must be within.
+     * @param packet Packet data to be sent.
+     */
+    void sendToClientsNear(ServerLevel level, double x, double y, double z, double radius, T packet);
+
     /**
      * Handler used to process the decoded packet.
      *
@@ -11,6 +11,8 @@ import net.minecraft.world.level.block.entity.BlockEntityType;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 import xyz.apex.minecraft.apexcore.common.lib.PhysicalSide;
+import xyz.apex.minecraft.apexcore.common.lib.block.entity.BaseBlockEntity;
+import xyz.apex.minecraft.apexcore.common.lib.block.entity.BlockEntitySyncScheduler;
 import xyz.apex.minecraft.apexcore.common.lib.hook.RendererHooks;
 import xyz.apex.minecraft.apexcore.common.lib.registry.AbstractRegistrar;
 import xyz.apex.minecraft.apexcore.common.lib.registry.entry.BlockEntityEntry;
@@ -35,6 +37,7 @@ public final class BlockEntityBuilder<O extends AbstractRegistrar<O>, T extends
     private final BlockEntityFactory<T> blockEntityFactory;
     private final List<Supplier<? extends Block>> validBlocks = Lists.newArrayList();
     @Nullable private Supplier<Supplier<BlockEntityRendererProvider<T>>> renderer = null;
+    private int minUpdateInterval = 0;
 
     @ApiStatus.Internal
     public BlockEntityBuilder(O registrar, P parent, String registrationName, BlockEntityFactory<T> blockEntityFactory)
@@ -47,6 +50,8 @@ public final class BlockEntityBuilder<O extends AbstractRegistrar<O>, T extends
     @Override
     protected void onRegister(BlockEntityType<T> entry)
     {
+        BlockEntitySyncScheduler.setMinInterval(entry, minUpdateInterval);
+
         PhysicalSide.CLIENT.runWhenOn(() -> () -> {
             if(renderer != null)
                 RendererHooks.get().registerBlockEntityRenderer(() -> entry, renderer);
@@ -65,6 +70,21 @@ public final class BlockEntityBuilder<O extends AbstractRegistrar<O>, T extends
         return this;
     }
 
+    /**
+     * Sets the minimum number of ticks between update packets sent for this BlockEntity.
+     * <p>
+     * Updates requested sooner are held back and sent once the interval has passed.
+     * Only applies to BlockEntities extending {@link BaseBlockEntity}.
+     *
+     * @param ticks Minimum number of ticks between update packets.
+     * @return This Builder.
+     */
+    public BlockEntityBuilder<O, T, P> minUpdateInterval(int ticks)
+    {
+        minUpdateInterval = ticks;
+        return self();
+    }
+
     /**
      * Mark given Block as being valid for this BlockEntity.
      *
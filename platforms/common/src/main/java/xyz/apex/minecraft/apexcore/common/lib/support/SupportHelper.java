@@ -31,24 +31,19 @@ public interface SupportHelper
 
     static boolean has(GameProfile profile, SupportLevel level)
     {
-        return all(profile).stream().anyMatch(level::matches);
+        return (SupportManager.INSTANCE.getMask(profile) & level.matchMask()) != 0;
     }
 
     static boolean hasAny(GameProfile profile, SupportLevel level, SupportLevel... levels)
     {
-        for(var playerLevel : all(profile))
-        {
-            if(level.matches(playerLevel))
-                return true;
+        var matchMask = level.matchMask();
 
-            for(var otherLevel : levels)
-            {
-                if(otherLevel.matches(playerLevel))
-                    return true;
-            }
+        for(var otherLevel : levels)
+        {
+            matchMask |= otherLevel.matchMask();
         }
 
-        return false;
+        return (SupportManager.INSTANCE.getMask(profile) & matchMask) != 0;
     }
 
     static Set<SupportLevel> all(GameProfile profile)
@@ -58,14 +53,6 @@ public interface SupportHelper
 
     static SupportLevel get(GameProfile profile)
     {
-        var best = SupportLevel.NONE;
-
-        for(var level : all(profile))
-        {
-            if(level.ordinal() < best.ordinal())
-                best = level;
-        }
-
-        return best;
+        return SupportLevel.highest(SupportManager.INSTANCE.getMask(profile));
     }
 }
@@ -8,6 +8,7 @@ import net.minecraft.util.StringRepresentable;
 import xyz.apex.minecraft.apexcore.common.core.ApexCore;
 import xyz.apex.minecraft.apexcore.common.lib.resgen.ProviderTypes;
 
+import java.util.EnumSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
@@ -24,7 +25,8 @@ public enum SupportLevel implements StringRepresentable
     SUPPORTER("supporter", "Supporter"),
     NONE("none", "None");
 
-    private static final Set<SupportLevel> LEVELS = Set.of(values());
+    private static final SupportLevel[] VALUES = values();
+    private static final Set<SupportLevel> LEVELS = Set.of(VALUES);
     private static final Set<String> NAMES = LEVELS.stream().map(SupportLevel::getSerializedName).collect(Collectors.toUnmodifiableSet());
     private static final Map<String, SupportLevel> BY_NAME = LEVELS.stream().collect(Collectors.toUnmodifiableMap(SupportLevel::getSerializedName, Function.identity()));
 
@@ -57,6 +59,17 @@ public enum SupportLevel implements StringRepresentable
         return ordinal() <= other.ordinal();
     }
 
+    public int mask()
+    {
+        return 1 << ordinal();
+    }
+
+    // mask of every level this level matches
+    int matchMask()
+    {
+        return -1 << ordinal();
+    }
+
     @Override
     public String getSerializedName()
     {
@@ -78,6 +91,38 @@ public enum SupportLevel implements StringRepresentable
         return BY_NAME.get(serializedName);
     }
 
+    static int toMask(Set<SupportLevel> levels)
+    {
+        var mask = 0;
+
+        for(var level : levels)
+        {
+            mask |= level.mask();
+        }
+
+        return mask;
+    }
+
+    static EnumSet<SupportLevel> fromMask(int mask)
+    {
+        var levels = EnumSet.noneOf(SupportLevel.class);
+
+        for(var level : VALUES)
+        {
+            if((mask & level.mask()) != 0)
+                levels.add(level);
+        }
+
+        return levels;
+    }
+
+    // highest level within the given mask, lowest ordinal wins
+    static SupportLevel highest(int mask)
+    {
+        var ordinal = Integer.numberOfTrailingZeros(mask);
+        return ordinal < VALUES.length ? VALUES[ordinal] : NONE;
+    }
+
     @DoNotCall
     public static void bootstrap()
     {
@@ -1,36 +1,72 @@
 package xyz.apex.minecraft.apexcore.common.lib.support;
 
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import com.mojang.authlib.GameProfile;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.Util;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerPlayer;
 import org.apache.logging.log4j.Marker;
 import org.apache.logging.log4j.MarkerManager;
 import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
 import xyz.apex.minecraft.apexcore.common.core.ApexCore;
+import xyz.apex.minecraft.apexcore.common.lib.modloader.ModLoader;
 import xyz.apex.minecraft.apexcore.common.lib.network.NetworkManager;
 import xyz.apex.minecraft.apexcore.common.lib.network.S2CPacket;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.net.URL;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 @ApiStatus.Internal
 public final class SupportManager
 {
-    public static final SupportManager INSTANCE = new SupportManager();
     private static final Marker MARKER = MarkerManager.getMarker("SUPPORT");
     private static final Set<SupportLevel> EMPTY_LEVELS = Collections.singleton(SupportLevel.NONE);
+    private static final int EMPTY_MASK = SupportLevel.NONE.mask();
+    private static final String REMOTE_URL = "https://raw.githubusercontent.com/ApexStudios-Dev/.github/master/supporters.json";
+    private static final Duration REMOTE_TIMEOUT = Duration.ofSeconds(10);
+    // bump whenever the cache file layout changes, mismatched caches are ignored
+    private static final int CACHE_VERSION = 1;
+    // must come after the constants above, the constructor depends on them
+    public static final SupportManager INSTANCE = new SupportManager();
 
     // TODO: Move to ApexCore if we need network for other things in ApexCore
     private final NetworkManager network;
     private final S2CPacket<SupportSyncPacket> supportSync;
-    private final Map<UUID, EnumSet<SupportLevel>> levels = Maps.newHashMap();
-    private boolean enabled = true;
+    // levels are refreshed off thread, snapshots are immutable and only ever swapped out atomically
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+    // snapshot last broadcast to all clients, deltas are computed against this, only accessed on the server thread
+    @Nullable private Snapshot lastSynced = null;
+    // last definitions loaded from the source or cache, restored when leaving a server
+    @Nullable private volatile Map<UUID, EnumSet<SupportLevel>> sourceLevels = null;
+    private volatile boolean fromServer = false;
+    private volatile boolean enabled = true;
+    private SupportSource source = SupportSource.remote(REMOTE_URL, REMOTE_TIMEOUT);
+    @Nullable private Path cacheFile = null;
+    // refreshes are started from both the client & integrated server threads, guarded by this
+    @Nullable private CompletableFuture<?> refresh = null;
+    // server to sync once the in flight refresh completes, guarded by this
+    @Nullable private MinecraftServer refreshServer = null;
+    // last queried player, almost always the local player during rendering
+    // tied to the snapshot it was resolved from, so any sync invalidates it
+    @Nullable private volatile CachedMask cachedMask = null;
 
     private SupportManager()
     {
@@ -42,23 +78,83 @@ public final class SupportManager
     {
     }
 
+    /**
+     * Replaces the source SupportLevel definitions are loaded from, such as a local file for testing.
+     *
+     * @param source Source to load definitions from.
+     */
+    public void setSource(SupportSource source)
+    {
+        this.source = source;
+    }
+
+    /**
+     * Replaces the file SupportLevel definitions are cached to.
+     *
+     * @param cacheFile File to cache definitions to.
+     */
+    public void setCacheFile(Path cacheFile)
+    {
+        this.cacheFile = cacheFile;
+    }
+
     public Set<SupportLevel> get(GameProfile profile)
     {
         if(!enabled)
             return EMPTY_LEVELS;
 
-        var set = levels.get(profile.getId());
+        var set = snapshot.get().levels().get(profile.getId());
         return set == null ? EMPTY_LEVELS : Collections.unmodifiableSet(set);
     }
 
-    void fromNetwork(SupportSyncPacket packet)
+    /**
+     * @param profile Profile to look up.
+     * @return Bitmask of {@link SupportLevel#mask()} for every level of the given profile.
+     */
+    public int getMask(GameProfile profile)
     {
         if(!enabled)
+            return EMPTY_MASK;
+
+        var playerId = profile.getId();
+        var current = snapshot.get();
+        var cached = cachedMask;
+
+        if(cached != null && cached.snapshot == current && cached.playerId.equals(playerId))
+            return cached.mask;
+
+        var mask = current.masks().getInt(playerId);
+        cachedMask = new CachedMask(playerId, current, mask);
+        return mask;
+    }
+
+    void fromNetwork(SupportSyncPacket packet)
+    {
+        // always applied, even if our own refresh failed the server may still have levels to share
+        if(packet.isFull())
+        {
+            ApexCore.LOGGER.info(MARKER, "Syncing SupportLevels from network");
+            fromServer = true;
+            snapshot.set(new Snapshot(packet.version, packet.levels));
+            enabled = true;
+            return;
+        }
+
+        var current = snapshot.get();
+
+        // full snapshot sent on join may already be newer than this delta
+        // deltas are only ever applied on top of a full snapshot received from the server
+        if(!fromServer || current.version() != packet.baseVersion)
+        {
+            ApexCore.LOGGER.debug(MARKER, "Ignoring SupportLevels delta {} -> {}, current version is {}", packet.baseVersion, packet.version, current.version());
             return;
+        }
 
-        ApexCore.LOGGER.info(MARKER, "Syncing SupportLevels from network");
-        levels.clear();
-        packet.levels.keySet().forEach(uuid -> levels.put(uuid, EnumSet.copyOf(packet.levels.get(uuid))));
+        ApexCore.LOGGER.info(MARKER, "Syncing SupportLevels delta from network: {} changed, {} removed", packet.levels.size(), packet.removed.size());
+        var newLevels = Maps.newHashMap(current.levels());
+        packet.removed.forEach(newLevels::remove);
+        newLevels.putAll(packet.levels);
+        snapshot.set(new Snapshot(packet.version, Collections.unmodifiableMap(newLevels)));
     }
 
     public void sync(MinecraftServer server)
@@ -66,9 +162,39 @@ public final class SupportManager
         if(!enabled)
             return;
 
-        ApexCore.LOGGER.info(MARKER, "Syncing SupportLevels to all clients");
-        var packet = new SupportSyncPacket(levels);
-        server.getPlayerList().getPlayers().forEach(player -> supportSync.sendToClient(player, packet));
+        var current = snapshot.get();
+        var previous = lastSynced;
+        lastSynced = current;
+
+        if(previous == null)
+        {
+            ApexCore.LOGGER.info(MARKER, "Syncing SupportLevels to all clients");
+            supportSync.sendToAllClients(server, SupportSyncPacket.full(current.version(), current.levels()));
+            return;
+        }
+
+        if(previous.version() == current.version())
+            return;
+
+        // only send what changed, joining players are sent the full snapshot
+        var changed = Maps.<UUID, EnumSet<SupportLevel>>newHashMap();
+        var removed = Sets.<UUID>newHashSet();
+
+        current.levels().forEach((uuid, levels) -> {
+            if(!levels.equals(previous.levels().get(uuid)))
+                changed.put(uuid, levels);
+        });
+
+        previous.levels().keySet().forEach(uuid -> {
+            if(!current.levels().containsKey(uuid))
+                removed.add(uuid);
+        });
+
+        if(changed.isEmpty() && removed.isEmpty())
+            return;
+
+        ApexCore.LOGGER.info(MARKER, "Syncing SupportLevels delta to all clients: {} changed, {} removed", changed.size(), removed.size());
+        supportSync.sendToAllClients(server, SupportSyncPacket.delta(previous.version(), current.version(), changed, removed));
     }
 
     public void sync(ServerPlayer player)
@@ -77,13 +203,185 @@ public final class SupportManager
             return;
 
         ApexCore.LOGGER.info(MARKER, "Syncing SupportLevels to client: {} ({})", player.getScoreboardName(), player.getUUID());
-        supportSync.sendToClient(player, new SupportSyncPacket(levels));
+        var current = snapshot.get();
+        supportSync.sendToClient(player, SupportSyncPacket.full(current.version(), current.levels()));
     }
 
     public void loadFromJson(JsonElement json)
     {
-        levels.clear();
+        apply(parse(json));
+    }
+
+    /**
+     * Loads SupportLevel definitions.
+     * <p>
+     * Cached definitions are applied immediately, fresh definitions are then loaded from the source in the background
+     * and synced to all clients of the given server once loaded.
+     *
+     * @param server Server to sync refreshed definitions to, null if none.
+     */
+    public void load(@Nullable MinecraftServer server)
+    {
+        fromServer = false;
+        var cached = sourceLevels;
+
+        if(cached == null)
+            cached = readCache();
+
+        if(cached != null)
+        {
+            apply(cached);
+            ApexCore.LOGGER.info(MARKER, "Loaded {} SupportLevel definitions from cache", cached.size());
+        }
+
+        refresh(server);
+    }
 
+    private synchronized void refresh(@Nullable MinecraftServer server)
+    {
+        // remember the server even when already refreshing, the in flight refresh syncs it once completed
+        if(server != null)
+            refreshServer = server;
+
+        // already refreshing, result will be picked up once completed
+        if(refresh != null && !refresh.isDone())
+            return;
+
+        ApexCore.LOGGER.info(MARKER, "Loading SupportLevel definitions from source");
+        var source = this.source;
+
+        refresh = CompletableFuture.supplyAsync(() -> {
+            try
+            {
+                return source.load();
+            }
+            catch(IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        }, Util.ioPool()).orTimeout(REMOTE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS).whenComplete((json, error) -> {
+            var syncServer = takeRefreshServer();
+
+            if(error == null)
+            {
+                try
+                {
+                    var loaded = parse(json);
+                    writeCache(json);
+                    apply(loaded);
+                    ApexCore.LOGGER.info(MARKER, "Loaded {} SupportLevel definitions", loaded.size());
+
+                    if(syncServer != null)
+                        syncServer.execute(() -> sync(syncServer));
+
+                    return;
+                }
+                catch(RuntimeException e)
+                {
+                    error = e;
+                }
+            }
+
+            if(error instanceof CompletionException && error.getCause() != null)
+                error = error.getCause();
+
+            if(sourceLevels != null)
+                ApexCore.LOGGER.warn(MARKER, "Error occurred while loading Supporter data from source! Continuing with cached data.", error);
+            else if(fromServer)
+                ApexCore.LOGGER.warn(MARKER, "Error occurred while loading Supporter data from source! Continuing with data synced from server.", error);
+            else
+            {
+                ApexCore.LOGGER.error(MARKER, "Error occurred while loading Supporter data from source! Supporter system will be disabled.", error);
+                enabled = false;
+            }
+        });
+    }
+
+    @Nullable
+    private synchronized MinecraftServer takeRefreshServer()
+    {
+        var server = refreshServer;
+        refreshServer = null;
+        return server;
+    }
+
+    private void apply(Map<UUID, EnumSet<SupportLevel>> loaded)
+    {
+        sourceLevels = loaded;
+        enabled = true;
+
+        // do not replace levels synced from the server we are currently connected to
+        if(!fromServer)
+            snapshot.updateAndGet(current -> new Snapshot(current.version() + 1, loaded));
+    }
+
+    private Path cacheFile()
+    {
+        if(cacheFile == null)
+            cacheFile = ModLoader.get().gameDirectory().resolve(".%s".formatted(ApexCore.ID)).resolve("supporters.json");
+
+        return cacheFile;
+    }
+
+    @Nullable
+    private Map<UUID, EnumSet<SupportLevel>> readCache()
+    {
+        var path = cacheFile();
+
+        if(!Files.isRegularFile(path))
+            return null;
+
+        try
+        {
+            var json = SupportSource.file(path).load().getAsJsonObject();
+
+            if(!json.has("version") || json.get("version").getAsInt() != CACHE_VERSION)
+            {
+                ApexCore.LOGGER.info(MARKER, "Ignoring SupportLevel cache with mismatched version");
+                return null;
+            }
+
+            return parse(json.get("levels"));
+        }
+        catch(IOException | RuntimeException e)
+        {
+            ApexCore.LOGGER.warn(MARKER, "Error occurred while reading Supporter data cache! Cache will be ignored.", e);
+            return null;
+        }
+    }
+
+    private void writeCache(JsonElement json)
+    {
+        var path = cacheFile();
+        var root = new JsonObject();
+        root.addProperty("version", CACHE_VERSION);
+        root.add("levels", json);
+
+        try
+        {
+            Files.createDirectories(path.getParent());
+            // write to a temporary file first, so a crash mid write never leaves a corrupt cache behind
+            var tempFile = path.resolveSibling(path.getFileName() + ".tmp");
+            Files.writeString(tempFile, new GsonBuilder().setPrettyPrinting().create().toJson(root), StandardCharsets.UTF_8);
+
+            try
+            {
+                Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch(AtomicMoveNotSupportedException e)
+            {
+                Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        catch(IOException e)
+        {
+            ApexCore.LOGGER.warn(MARKER, "Error occurred while writing Supporter data cache!", e);
+        }
+    }
+
+    private static Map<UUID, EnumSet<SupportLevel>> parse(JsonElement json)
+    {
+        var newLevels = Maps.<UUID, EnumSet<SupportLevel>>newHashMap();
         var obj = json.getAsJsonObject();
 
         for(var key : obj.keySet())
@@ -96,33 +394,31 @@ public final class SupportManager
                 levelsSets.add(SupportLevel.byName(levelJson.getAsString()));
             }
 
-            levels.put(uuid, EnumSet.copyOf(levelsSets));
+            newLevels.put(uuid, EnumSet.copyOf(levelsSets));
         }
+
+        return Collections.unmodifiableMap(newLevels);
     }
 
-    public void loadFromRemote()
+    private record Snapshot(int version, Map<UUID, EnumSet<SupportLevel>> levels, Object2IntMap<UUID> masks)
     {
-        ApexCore.LOGGER.info(MARKER, "Loading SupportLevel definitions from remote");
-        levels.clear();
-        var gson = new GsonBuilder().setLenient().create();
-        var url = "https://raw.githubusercontent.com/ApexStudios-Dev/.github/master/supporters.json";
+        private static final Snapshot EMPTY = new Snapshot(0, Map.of());
 
-        try
+        private Snapshot(int version, Map<UUID, EnumSet<SupportLevel>> levels)
         {
-            var connection = new URL(url).openConnection();
-
-            try(var reader = new BufferedReader(new InputStreamReader(connection.getInputStream())))
-            {
-                loadFromJson(gson.fromJson(reader, JsonElement.class));
-            }
+            this(version, levels, toMasks(levels));
         }
-        catch(IOException e)
+
+        private static Object2IntMap<UUID> toMasks(Map<UUID, EnumSet<SupportLevel>> levels)
         {
-            ApexCore.LOGGER.error(MARKER, "Error occurred while loading Supporter data from remote! Supporter system will be disabled.", e);
-            enabled = false;
-            return;
+            var masks = new Object2IntOpenHashMap<UUID>(levels.size());
+            masks.defaultReturnValue(EMPTY_MASK);
+            levels.forEach((playerId, playerLevels) -> masks.put(playerId, SupportLevel.toMask(playerLevels)));
+            return masks;
         }
+    }
 
-        ApexCore.LOGGER.info(MARKER, "Loaded {} SupporterLevel definitions", levels.size());
+    private record CachedMask(UUID playerId, Snapshot snapshot, int mask)
+    {
     }
 }
@@ -0,0 +1,81 @@
+package xyz.apex.minecraft.apexcore.common.lib.support;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Source of SupportLevel definitions.
+ * <p>
+ * Sources are always queried off of the main thread and are free to block.
+ */
+@ApiStatus.Internal
+@FunctionalInterface
+public interface SupportSource
+{
+    /**
+     * Loads the raw SupportLevel definitions from this source.
+     *
+     * @return Json object mapping player uuids to arrays of SupportLevel names.
+     * @throws IOException If the definitions could not be loaded.
+     */
+    JsonElement load() throws IOException;
+
+    /**
+     * Returns source loading definitions from the given url.
+     *
+     * @param url     Url to load definitions from.
+     * @param timeout Timeout for both connecting and reading.
+     * @return Source loading definitions from the given url.
+     */
+    static SupportSource remote(String url, Duration timeout)
+    {
+        return () -> {
+            var connection = new URL(url).openConnection();
+            var timeoutMillis = Math.toIntExact(timeout.toMillis());
+            connection.setConnectTimeout(timeoutMillis);
+            connection.setReadTimeout(timeoutMillis);
+
+            try(var reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8)))
+            {
+                return parse(reader);
+            }
+        };
+    }
+
+    /**
+     * Returns source loading definitions from the given local file.
+     *
+     * @param path Path to file to load definitions from.
+     * @return Source loading definitions from the given local file.
+     */
+    static SupportSource file(Path path)
+    {
+        return () -> {
+            try(var reader = Files.newBufferedReader(path, StandardCharsets.UTF_8))
+            {
+                return parse(reader);
+            }
+        };
+    }
+
+    private static JsonElement parse(Reader reader) throws IOException
+    {
+        var json = new GsonBuilder().setLenient().create().fromJson(reader, JsonElement.class);
+
+        if(json == null || !json.isJsonObject())
+            throw new IOException("Malformed SupportLevel definitions, expected json object");
+
+        return json;
+    }
+}
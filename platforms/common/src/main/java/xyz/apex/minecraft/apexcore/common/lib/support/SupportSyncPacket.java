@@ -4,32 +4,76 @@ import net.minecraft.client.Minecraft;
 import net.minecraft.network.FriendlyByteBuf;
 import xyz.apex.minecraft.apexcore.common.lib.network.NetworkManager;
 
-import java.util.Collections;
-import java.util.EnumSet;
-import java.util.Map;
-import java.util.UUID;
+import java.util.*;
 
 final class SupportSyncPacket
 {
+    final int version;
+    // version this delta applies on top of, -1 for full snapshots
+    final int baseVersion;
+    // every entry for full snapshots, only added or changed entries for deltas
     final Map<UUID, EnumSet<SupportLevel>> levels;
+    final Set<UUID> removed;
 
-    SupportSyncPacket(Map<UUID, EnumSet<SupportLevel>> levels)
+    private SupportSyncPacket(int version, int baseVersion, Map<UUID, EnumSet<SupportLevel>> levels, Set<UUID> removed)
     {
+        this.version = version;
+        this.baseVersion = baseVersion;
         this.levels = Collections.unmodifiableMap(levels);
+        this.removed = Collections.unmodifiableSet(removed);
     }
 
     SupportSyncPacket(FriendlyByteBuf buffer)
     {
-        levels = buffer.readMap(FriendlyByteBuf::readUUID, valueBuffer -> valueBuffer.readEnumSet(SupportLevel.class));
+        version = buffer.readVarInt();
+        baseVersion = buffer.readVarInt() - 1;
+        levels = Collections.unmodifiableMap(buffer.readMap(FriendlyByteBuf::readUUID, SupportSyncPacket::readLevels));
+        removed = isFull() ? Set.of() : Collections.unmodifiableSet(buffer.readCollection(HashSet::new, FriendlyByteBuf::readUUID));
+    }
+
+    boolean isFull()
+    {
+        return baseVersion < 0;
+    }
+
+    static SupportSyncPacket full(int version, Map<UUID, EnumSet<SupportLevel>> levels)
+    {
+        return new SupportSyncPacket(version, -1, levels, Set.of());
+    }
+
+    static SupportSyncPacket delta(int baseVersion, int version, Map<UUID, EnumSet<SupportLevel>> changed, Set<UUID> removed)
+    {
+        return new SupportSyncPacket(version, baseVersion, changed, removed);
     }
 
     static void encode(SupportSyncPacket packet, FriendlyByteBuf buffer)
     {
-        buffer.writeMap(packet.levels, FriendlyByteBuf::writeUUID, (valueBuffer, supportLevels) -> valueBuffer.writeEnumSet(supportLevels, SupportLevel.class));
+        buffer.writeVarInt(packet.version);
+        // shifted by 1 so full snapshots are written as a single 0 byte
+        buffer.writeVarInt(packet.baseVersion + 1);
+        buffer.writeMap(packet.levels, FriendlyByteBuf::writeUUID, SupportSyncPacket::writeLevels);
+
+        if(!packet.isFull())
+            buffer.writeCollection(packet.removed, FriendlyByteBuf::writeUUID);
     }
 
     static void consume(Minecraft client, NetworkManager networkManager, SupportSyncPacket packet)
     {
+        // integrated server shares the same manager, levels are already in place
+        if(client.isLocalServer())
+            return;
+
         SupportManager.INSTANCE.fromNetwork(packet);
     }
+
+    // levels are packed into a single bitmask of ordinals rather than a length prefixed enum set
+    private static void writeLevels(FriendlyByteBuf buffer, EnumSet<SupportLevel> levels)
+    {
+        buffer.writeVarInt(SupportLevel.toMask(levels));
+    }
+
+    private static EnumSet<SupportLevel> readLevels(FriendlyByteBuf buffer)
+    {
+        return SupportLevel.fromMask(buffer.readVarInt());
+    }
 }
@@ -1,6 +1,7 @@
 package xyz.apex.minecraft.apexcore.fabric.core;
 
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.fabricmc.fabric.api.client.rendering.v1.HudRenderCallback;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderEvents;
@@ -11,6 +12,8 @@ import xyz.apex.minecraft.apexcore.common.core.ApexCoreClient;
 import xyz.apex.minecraft.apexcore.common.core.client.BlockPlacementRenderer;
 import xyz.apex.minecraft.apexcore.common.lib.PhysicalSide;
 import xyz.apex.minecraft.apexcore.common.lib.SideOnly;
+import xyz.apex.minecraft.apexcore.common.lib.network.PacketBatcher;
+import xyz.apex.minecraft.apexcore.common.lib.network.PacketQueue;
 import xyz.apex.minecraft.apexcore.common.lib.support.SupportManager;
 
 @SideOnly(PhysicalSide.CLIENT)
@@ -27,8 +30,14 @@ public final class ApexCoreClientImpl implements ApexCoreClient
             return true;
         });
 
-        ClientLifecycleEvents.CLIENT_STARTED.register(client -> SupportManager.INSTANCE.loadFromRemote());
-        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> SupportManager.INSTANCE.loadFromRemote());
+        ClientLifecycleEvents.CLIENT_STARTED.register(client -> SupportManager.INSTANCE.load(null));
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> SupportManager.INSTANCE.load(null));
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> PacketQueue.CLIENT.clear());
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> PacketBatcher.clearAllToServer());
+        ClientTickEvents.END_CLIENT_TICK.register(client -> {
+            PacketQueue.CLIENT.drain();
+            PacketBatcher.flushAllToServer();
+        });
 
         if(ApexCore.IS_EARLY_BUILD)
         {
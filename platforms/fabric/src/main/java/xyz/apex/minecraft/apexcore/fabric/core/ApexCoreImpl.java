@@ -1,7 +1,9 @@
 package xyz.apex.minecraft.apexcore.fabric.core;
 
 import net.fabricmc.fabric.api.entity.FakePlayer;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 import net.fabricmc.fabric.api.screenhandler.v1.ExtendedScreenHandlerType;
 import net.fabricmc.loader.api.FabricLoader;
@@ -21,7 +23,12 @@ import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 import xyz.apex.minecraft.apexcore.common.core.ApexCore;
 import xyz.apex.minecraft.apexcore.common.lib.PhysicalSide;
+import xyz.apex.minecraft.apexcore.common.lib.block.entity.BlockEntitySyncScheduler;
+import xyz.apex.minecraft.apexcore.common.lib.component.block.entity.types.LootTableBlockEntityComponent;
 import xyz.apex.minecraft.apexcore.common.lib.network.NetworkManager;
+import xyz.apex.minecraft.apexcore.common.lib.network.PacketBatcher;
+import xyz.apex.minecraft.apexcore.common.lib.network.PacketBuffers;
+import xyz.apex.minecraft.apexcore.common.lib.network.PacketQueue;
 import xyz.apex.minecraft.apexcore.common.lib.registry.AbstractRegistrar;
 import xyz.apex.minecraft.apexcore.common.lib.registry.RegistryHelper;
 import xyz.apex.minecraft.apexcore.common.lib.registry.factory.MenuFactory;
@@ -52,8 +59,22 @@ public final class ApexCoreImpl implements ApexCore, RegistryHelper
     {
         ApexCore.super.bootstrap();
 
+        ServerPlayConnectionEvents.JOIN.register((handler, sender, server) -> NetworkManagerImpl.syncPacketTables(handler.player));
         ServerPlayConnectionEvents.JOIN.register((handler, sender, server) -> SupportManager.INSTANCE.sync(handler.player));
-        ServerLifecycleEvents.SERVER_STARTED.register(server -> SupportManager.INSTANCE.loadFromRemote());
+        ServerLifecycleEvents.SERVER_STARTED.register(SupportManager.INSTANCE::load);
+        ServerChunkEvents.CHUNK_LOAD.register(LootTableBlockEntityComponent::onChunkLoad);
+        ServerTickEvents.END_SERVER_TICK.register(server -> {
+            PacketQueue.SERVER.drain();
+            BlockEntitySyncScheduler.flush();
+            PacketBatcher.flushAllToClients();
+        });
+
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            PacketQueue.SERVER.clear();
+            PacketBatcher.clearAllToClients();
+            BlockEntitySyncScheduler.clear();
+            PacketBuffers.logStatistics();
+        });
     }
 
     @Override
@@ -3,6 +3,7 @@ package xyz.apex.minecraft.apexcore.fabric.entrypoint;
 import net.fabricmc.api.ClientModInitializer;
 import org.jetbrains.annotations.ApiStatus;
 import xyz.apex.minecraft.apexcore.common.core.ApexCoreClient;
+import xyz.apex.minecraft.apexcore.common.core.CoreServices;
 
 @ApiStatus.Internal
 public final class ApexCoreClientModInitializer implements ClientModInitializer
@@ -10,6 +11,7 @@ public final class ApexCoreClientModInitializer implements ClientModInitializer
     @Override
     public void onInitializeClient()
     {
+        CoreServices.validateClient();
         ApexCoreClient.INSTANCE.bootstrap();
     }
 }
@@ -3,6 +3,7 @@ package xyz.apex.minecraft.apexcore.fabric.entrypoint;
 import net.fabricmc.api.ModInitializer;
 import org.jetbrains.annotations.ApiStatus;
 import xyz.apex.minecraft.apexcore.common.core.ApexCore;
+import xyz.apex.minecraft.apexcore.common.core.CoreServices;
 
 @ApiStatus.Internal
 public final class ApexCoreModInitializer implements ModInitializer
@@ -10,6 +11,7 @@ public final class ApexCoreModInitializer implements ModInitializer
     @Override
     public void onInitialize()
     {
+        CoreServices.validate();
         ApexCore.INSTANCE.bootstrap();
     }
 }
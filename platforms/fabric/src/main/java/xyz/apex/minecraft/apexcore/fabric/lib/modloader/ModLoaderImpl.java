@@ -7,6 +7,7 @@ import org.jetbrains.annotations.ApiStatus;
 import xyz.apex.minecraft.apexcore.common.lib.modloader.Mod;
 import xyz.apex.minecraft.apexcore.common.lib.modloader.ModLoader;
 
+import java.nio.file.Path;
 import java.util.*;
 
 @ApiStatus.Internal
@@ -77,4 +78,10 @@ public final class ModLoaderImpl implements ModLoader
     {
         return modsView;
     }
+
+    @Override
+    public Path gameDirectory()
+    {
+        return FabricLoader.getInstance().getGameDir();
+    }
 }
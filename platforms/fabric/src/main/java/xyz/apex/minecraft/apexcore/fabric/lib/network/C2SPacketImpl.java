@@ -4,6 +4,7 @@ import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
 import xyz.apex.minecraft.apexcore.common.lib.network.C2SPacket;
 import xyz.apex.minecraft.apexcore.common.lib.network.NetworkManager;
+import xyz.apex.minecraft.apexcore.common.lib.network.PacketQueue;
 
 import java.util.function.Supplier;
 
@@ -11,13 +12,21 @@ final class C2SPacketImpl<T> extends PacketImpl<T> implements C2SPacket<T>
 {
     private final Supplier<Supplier<Handler<T>>> handler;
 
-    C2SPacketImpl(NetworkManager manager, String packetKey, NetworkManager.Encoder<T> encoder, NetworkManager.Decoder<T> decoder, Supplier<Supplier<Handler<T>>> handler)
+    C2SPacketImpl(NetworkManager manager, int index, String packetKey, NetworkManager.Encoder<T> encoder, NetworkManager.Decoder<T> decoder, Supplier<Supplier<Handler<T>>> handler)
     {
-        super(manager, packetKey, encoder, decoder);
+        super(manager, index, packetKey, encoder, decoder);
 
         this.handler = handler;
 
-        ServerPlayNetworking.registerGlobalReceiver(packetId(), (server, sender, vanillaHandler, buffer, responseSender) -> handler().handle(server, manager(), sender, decoder().decode(buffer)));
+        // decode on the network thread, handle on the main thread
+        ServerPlayNetworking.registerGlobalReceiver(packetId(), (server, sender, vanillaHandler, buffer, responseSender) -> {
+            var packetData = decoder().decode(buffer);
+
+            PacketQueue.SERVER.enqueue(this, sender.getUUID(), packetData, () -> {
+                if(!sender.hasDisconnected())
+                    handler().handle(server, manager(), sender, packetData);
+            });
+        });
     }
 
     @Override
@@ -29,6 +38,11 @@ final class C2SPacketImpl<T> extends PacketImpl<T> implements C2SPacket<T>
     @Override
     public void sendToServer(T packet)
     {
-        ClientPlayNetworking.send(packetId(), encoder().encode(packet));
+        var batcher = ((NetworkManagerImpl) manager()).batcher;
+
+        if(batcher != null && batcher.queue(this, packet))
+            return;
+
+        ClientPlayNetworking.send(packetId(), encode(packet));
     }
 }
@@ -1,27 +1,42 @@
 package xyz.apex.minecraft.apexcore.fabric.lib.network;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import net.minecraft.client.Minecraft;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerPlayer;
 import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
 import xyz.apex.minecraft.apexcore.common.core.ApexCore;
 import xyz.apex.minecraft.apexcore.common.lib.network.C2SPacket;
 import xyz.apex.minecraft.apexcore.common.lib.network.NetworkManager;
+import xyz.apex.minecraft.apexcore.common.lib.network.PacketBatcher;
 import xyz.apex.minecraft.apexcore.common.lib.network.S2CPacket;
 
+import java.util.List;
 import java.util.Map;
 import java.util.function.Supplier;
 
 @ApiStatus.Internal
 public final class NetworkManagerImpl implements NetworkManager
 {
-    private static final Map<String, NetworkManager> MAP = Maps.newConcurrentMap();
+    private static final Map<String, NetworkManagerImpl> MAP = Maps.newConcurrentMap();
 
     private final String ownerId;
     private final Map<String, C2SPacketImpl<?>> client2ServerPackets = Maps.newHashMap();
     private final Map<String, S2CPacketImpl<?>> server2ClientPackets = Maps.newHashMap();
+    @Nullable PacketBatcher batcher = null;
+    // every packet in registration order, index into this list is the packets network id
+    private final List<PacketImpl<?>> packets = Lists.newArrayList();
+    // always registered first, so both sides agree on its id regardless of what else gets registered
+    private final S2CPacket<Integer> packetTable;
 
     private NetworkManagerImpl(String ownerId)
     {
         this.ownerId = ownerId;
+
+        packetTable = registerClientBound("internal/packet_table", (hash, buffer) -> buffer.writeInt(hash), FriendlyByteBuf::readInt, () -> () -> NetworkManagerImpl::verifyPacketTable);
     }
 
     @Override
@@ -30,12 +45,23 @@ public final class NetworkManagerImpl implements NetworkManager
         return ownerId;
     }
 
+    @Override
+    public NetworkManager enableBatching()
+    {
+        if(batcher == null)
+            // packet table verifies the indices bundles rely on, must never be sent within one
+            batcher = new PacketBatcher(this, packet -> ((PacketImpl<?>) packet).index, this::packet, packetTable);
+
+        return this;
+    }
+
     @Override
     public <T> C2SPacket<T> registerServerBound(String packetKey, Encoder<T> encoder, Decoder<T> decoder, Supplier<Supplier<C2SPacket.Handler<T>>> handler)
     {
-        var packet = new C2SPacketImpl<>(this, packetKey, encoder, decoder, handler);
+        var packet = new C2SPacketImpl<>(this, packets.size(), packetKey, encoder, decoder, handler);
         if(client2ServerPackets.put(packetKey, packet) != null)
             throw new IllegalStateException("Attempt to register C2S packet with duplicate id: '%s:%s'".formatted(ownerId, packetKey));
+        packets.add(packet);
         ApexCore.LOGGER.debug("[{}] Registering C2S Network Packet: {}", ownerId, packetKey);
         return packet;
     }
@@ -43,15 +69,60 @@ public final class NetworkManagerImpl implements NetworkManager
     @Override
     public <T> S2CPacket<T> registerClientBound(String packetKey, Encoder<T> encoder, Decoder<T> decoder, Supplier<Supplier<S2CPacket.Handler<T>>> handler)
     {
-        var packet = new S2CPacketImpl<>(this, packetKey, encoder, decoder, handler);
+        var packet = new S2CPacketImpl<>(this, packets.size(), packetKey, encoder, decoder, handler);
         if(server2ClientPackets.put(packetKey, packet) != null)
             throw new IllegalStateException("Attempt to register S2C packet with duplicate id: '%s:%s'".formatted(ownerId, packetKey));
+        packets.add(packet);
         ApexCore.LOGGER.debug("[{}] Registering S2C Network Packet: {}", ownerId, packetKey);
         return packet;
     }
 
+    private PacketImpl<?> packet(int index)
+    {
+        if(index < 0 || index >= packets.size())
+            throw new IllegalStateException("Received unknown packet id: '%s:%d'".formatted(ownerId, index));
+        return packets.get(index);
+    }
+
+    // hash of every packet key in registration order
+    // both sides must have registered the exact same packets in the exact same order for batched packet ids to match
+    private int packetTableHash()
+    {
+        var hash = 1;
+
+        for(var packet : packets)
+        {
+            hash = 31 * hash + (packet instanceof C2SPacket<?> ? 1 : 2);
+            hash = 31 * hash + packet.packetId().hashCode();
+        }
+
+        return hash;
+    }
+
+    private static void verifyPacketTable(Minecraft client, NetworkManager manager, Integer hash)
+    {
+        var ownerId = manager.getOwnerId();
+
+        if(((NetworkManagerImpl) manager).packetTableHash() == hash)
+        {
+            ApexCore.LOGGER.debug("[{}] Network packet table verified", ownerId);
+            return;
+        }
+
+        ApexCore.LOGGER.error("[{}] Network packet table mismatch, client and server have registered different packets", ownerId);
+        var connection = client.getConnection();
+
+        if(connection != null)
+            connection.getConnection().disconnect(Component.literal("Network packet table mismatch for '%s', client and server have registered different packets".formatted(ownerId)));
+    }
+
     public static NetworkManager getOrCreate(String ownerId)
     {
         return MAP.computeIfAbsent(ownerId, NetworkManagerImpl::new);
     }
+
+    public static void syncPacketTables(ServerPlayer player)
+    {
+        MAP.values().forEach(manager -> manager.packetTable.sendToClient(player, manager.packetTableHash()));
+    }
 }
@@ -1,19 +1,26 @@
 package xyz.apex.minecraft.apexcore.fabric.lib.network;
 
+import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.resources.ResourceLocation;
 import xyz.apex.minecraft.apexcore.common.lib.network.NetworkManager;
 import xyz.apex.minecraft.apexcore.common.lib.network.Packet;
+import xyz.apex.minecraft.apexcore.common.lib.network.PacketBuffers;
 
 abstract class PacketImpl<T> implements Packet<T>
 {
     private final NetworkManager manager;
     private final ResourceLocation packetId;
+    // network id, registration order within the owning manager
+    final int index;
     private final NetworkManager.Encoder<T> encoder;
     private final NetworkManager.Decoder<T> decoder;
+    // payload buffers are pre-sized from previously encoded sizes
+    private final PacketBuffers.SizeHint sizeHint = new PacketBuffers.SizeHint();
 
-    protected PacketImpl(NetworkManager manager, String packetKey, NetworkManager.Encoder<T> encoder, NetworkManager.Decoder<T> decoder)
+    protected PacketImpl(NetworkManager manager, int index, String packetKey, NetworkManager.Encoder<T> encoder, NetworkManager.Decoder<T> decoder)
     {
         this.manager = manager;
+        this.index = index;
         this.encoder = encoder;
         this.decoder = decoder;
 
@@ -44,6 +51,11 @@ abstract class PacketImpl<T> implements Packet<T>
         return decoder;
     }
 
+    protected final FriendlyByteBuf encode(T packetData)
+    {
+        return PacketBuffers.encode(this, packetData, sizeHint);
+    }
+
     @Override
     public boolean equals(Object obj)
     {
@@ -2,24 +2,36 @@ package xyz.apex.minecraft.apexcore.fabric.lib.network;
 
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.fabricmc.fabric.api.networking.v1.PlayerLookup;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.phys.Vec3;
 import xyz.apex.minecraft.apexcore.common.lib.PhysicalSide;
 import xyz.apex.minecraft.apexcore.common.lib.network.NetworkManager;
+import xyz.apex.minecraft.apexcore.common.lib.network.PacketQueue;
 import xyz.apex.minecraft.apexcore.common.lib.network.S2CPacket;
 
+import java.util.Collection;
 import java.util.function.Supplier;
 
 final class S2CPacketImpl<T> extends PacketImpl<T> implements S2CPacket<T>
 {
     private final Supplier<Supplier<Handler<T>>> handler;
 
-    S2CPacketImpl(NetworkManager manager, String packetKey, NetworkManager.Encoder<T> encoder, NetworkManager.Decoder<T> decoder, Supplier<Supplier<Handler<T>>> handler)
+    S2CPacketImpl(NetworkManager manager, int index, String packetKey, NetworkManager.Encoder<T> encoder, NetworkManager.Decoder<T> decoder, Supplier<Supplier<Handler<T>>> handler)
     {
-        super(manager, packetKey, encoder, decoder);
+        super(manager, index, packetKey, encoder, decoder);
 
         this.handler = handler;
 
-        PhysicalSide.CLIENT.runWhenOn(() -> () -> ClientPlayNetworking.registerGlobalReceiver(packetId(), (client, vanillaHandler, buffer, responseSender) -> handler().handle(client, manager(), decoder().decode(buffer))));
+        // decode on the network thread, handle on the main thread
+        PhysicalSide.CLIENT.runWhenOn(() -> () -> ClientPlayNetworking.registerGlobalReceiver(packetId(), (client, vanillaHandler, buffer, responseSender) -> {
+            var packetData = decoder().decode(buffer);
+            PacketQueue.CLIENT.enqueue(this, null, packetData, () -> handler().handle(client, manager(), packetData));
+        }));
     }
 
     @Override
@@ -31,6 +43,57 @@ final class S2CPacketImpl<T> extends PacketImpl<T> implements S2CPacket<T>
     @Override
     public void sendToClient(ServerPlayer player, T packet)
     {
-        ServerPlayNetworking.send(player, packetId(), encoder().encode(packet));
+        var batcher = ((NetworkManagerImpl) manager()).batcher;
+
+        if(batcher != null && batcher.queue(player, this, packet))
+            return;
+
+        ServerPlayNetworking.send(player, packetId(), encode(packet));
+    }
+
+    @Override
+    public void sendToAllClients(MinecraftServer server, T packet)
+    {
+        broadcast(PlayerLookup.all(server), packet);
+    }
+
+    @Override
+    public void sendToClientsIn(ServerLevel level, T packet)
+    {
+        broadcast(PlayerLookup.world(level), packet);
+    }
+
+    @Override
+    public void sendToClientsTracking(LevelChunk chunk, T packet)
+    {
+        broadcast(PlayerLookup.tracking((ServerLevel) chunk.getLevel(), chunk.getPos()), packet);
+    }
+
+    @Override
+    public void sendToClientsTracking(Entity entity, T packet)
+    {
+        broadcast(PlayerLookup.tracking(entity), packet);
+    }
+
+    @Override
+    public void sendToClientsNear(ServerLevel level, double x, double y, double z, double radius, T packet)
+    {
+        broadcast(PlayerLookup.around(level, new Vec3(x, y, z), radius), packet);
+    }
+
+    private void broadcast(Collection<ServerPlayer> players, T packet)
+    {
+        if(players.isEmpty())
+            return;
+
+        var batcher = ((NetworkManagerImpl) manager()).batcher;
+
+        // broadcasts are never batched, send whatever is pending first to keep per player ordering
+        if(batcher != null)
+            batcher.flushBeforeBroadcast();
+
+        // encode once, vanilla packet is safe to be sent to multiple connections
+        var vanillaPacket = ServerPlayNetworking.createS2CPacket(packetId(), encode(packet));
+        players.forEach(player -> player.connection.send(vanillaPacket));
     }
 }
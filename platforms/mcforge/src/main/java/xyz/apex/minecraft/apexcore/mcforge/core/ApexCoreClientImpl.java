@@ -5,6 +5,7 @@ import net.minecraftforge.client.event.RegisterGuiOverlaysEvent;
 import net.minecraftforge.client.event.RenderLevelStageEvent;
 import net.minecraftforge.client.event.ScreenEvent;
 import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.fml.event.lifecycle.FMLLoadCompleteEvent;
 import org.jetbrains.annotations.ApiStatus;
 import xyz.apex.minecraft.apexcore.common.core.ApexCore;
@@ -12,6 +13,8 @@ import xyz.apex.minecraft.apexcore.common.core.ApexCoreClient;
 import xyz.apex.minecraft.apexcore.common.core.client.BlockPlacementRenderer;
 import xyz.apex.minecraft.apexcore.common.lib.PhysicalSide;
 import xyz.apex.minecraft.apexcore.common.lib.SideOnly;
+import xyz.apex.minecraft.apexcore.common.lib.network.PacketBatcher;
+import xyz.apex.minecraft.apexcore.common.lib.network.PacketQueue;
 import xyz.apex.minecraft.apexcore.common.lib.support.SupportManager;
 import xyz.apex.minecraft.apexcore.mcforge.lib.EventBusHelper;
 import xyz.apex.minecraft.apexcore.mcforge.lib.EventBuses;
@@ -26,7 +29,7 @@ public final class ApexCoreClientImpl implements ApexCoreClient
         ApexCoreClient.super.bootstrap();
 
         EventBuses.addListener(ApexCore.ID, modBus -> {
-            EventBusHelper.addListener(modBus, FMLLoadCompleteEvent.class, event -> SupportManager.INSTANCE.loadFromRemote());
+            EventBusHelper.addListener(modBus, FMLLoadCompleteEvent.class, event -> SupportManager.INSTANCE.load(null));
 
             if(ApexCore.IS_EARLY_BUILD)
                 EventBusHelper.addListener(modBus, RegisterGuiOverlaysEvent.class, event -> event.registerAboveAll("%s_early_build_overlay".formatted(ApexCore.ID), (gui, graphics, partialTick, width, height) -> renderEarlyBuildOverlay(graphics, true)));
@@ -35,7 +38,17 @@ public final class ApexCoreClientImpl implements ApexCoreClient
         if(ApexCore.IS_EARLY_BUILD)
             EventBusHelper.addListener(MinecraftForge.EVENT_BUS, ScreenEvent.BackgroundRendered.class, event -> renderEarlyBuildOverlay(event.getGuiGraphics(), false));
 
-        EventBusHelper.addListener(MinecraftForge.EVENT_BUS, ClientPlayerNetworkEvent.LoggingOut.class, event -> SupportManager.INSTANCE.loadFromRemote());
+        EventBusHelper.addListener(MinecraftForge.EVENT_BUS, ClientPlayerNetworkEvent.LoggingOut.class, event -> SupportManager.INSTANCE.load(null));
+        EventBusHelper.addListener(MinecraftForge.EVENT_BUS, ClientPlayerNetworkEvent.LoggingOut.class, event -> PacketQueue.CLIENT.clear());
+        EventBusHelper.addListener(MinecraftForge.EVENT_BUS, ClientPlayerNetworkEvent.LoggingOut.class, event -> PacketBatcher.clearAllToServer());
+
+        EventBusHelper.addListener(MinecraftForge.EVENT_BUS, TickEvent.ClientTickEvent.class, event -> {
+            if(event.phase != TickEvent.Phase.END)
+                return;
+
+            PacketQueue.CLIENT.drain();
+            PacketBatcher.flushAllToServer();
+        });
 
         EventBusHelper.addListener(MinecraftForge.EVENT_BUS, RenderLevelStageEvent.class, event -> {
             if(event.getStage() == RenderLevelStageEvent.Stage.AFTER_PARTICLES)
@@ -3,6 +3,7 @@ package xyz.apex.minecraft.apexcore.mcforge.core;
 import net.minecraft.core.Registry;
 import net.minecraft.resources.ResourceKey;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.EntityType;
@@ -11,11 +12,15 @@ import net.minecraft.world.inventory.AbstractContainerMenu;
 import net.minecraft.world.inventory.MenuType;
 import net.minecraft.world.item.Item;
 import net.minecraft.world.item.SpawnEggItem;
+import net.minecraft.world.level.chunk.LevelChunk;
 import net.minecraftforge.common.ForgeSpawnEggItem;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.common.extensions.IForgeMenuType;
 import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.event.level.ChunkEvent;
+import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.event.server.ServerStartedEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
 import net.minecraftforge.eventbus.api.EventPriority;
 import net.minecraftforge.fml.loading.FMLEnvironment;
 import net.minecraftforge.registries.RegisterEvent;
@@ -23,8 +28,14 @@ import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 import xyz.apex.minecraft.apexcore.common.core.ApexCore;
 import xyz.apex.minecraft.apexcore.common.core.ApexCoreClient;
+import xyz.apex.minecraft.apexcore.common.core.CoreServices;
 import xyz.apex.minecraft.apexcore.common.lib.PhysicalSide;
+import xyz.apex.minecraft.apexcore.common.lib.block.entity.BlockEntitySyncScheduler;
+import xyz.apex.minecraft.apexcore.common.lib.component.block.entity.types.LootTableBlockEntityComponent;
 import xyz.apex.minecraft.apexcore.common.lib.network.NetworkManager;
+import xyz.apex.minecraft.apexcore.common.lib.network.PacketBatcher;
+import xyz.apex.minecraft.apexcore.common.lib.network.PacketBuffers;
+import xyz.apex.minecraft.apexcore.common.lib.network.PacketQueue;
 import xyz.apex.minecraft.apexcore.common.lib.registry.AbstractRegistrar;
 import xyz.apex.minecraft.apexcore.common.lib.registry.RegistryHelper;
 import xyz.apex.minecraft.apexcore.common.lib.registry.factory.MenuFactory;
@@ -50,10 +61,36 @@ public final class ApexCoreImpl implements ApexCore
 
         EventBuses.registerForJavaFML();
         MinecraftForgeEvents.register();
-        PhysicalSide.CLIENT.runWhenOn(() -> ApexCoreClient.INSTANCE::bootstrap);
+        PhysicalSide.CLIENT.runWhenOn(() -> () -> {
+            CoreServices.validateClient();
+            ApexCoreClient.INSTANCE.bootstrap();
+        });
 
+        // packet tables must be verified before any other packets are sent
+        EventBusHelper.addListener(MinecraftForge.EVENT_BUS, EventPriority.HIGHEST, PlayerEvent.PlayerLoggedInEvent.class, event -> NetworkManagerImpl.syncPacketTables((ServerPlayer) event.getEntity()));
         EventBusHelper.addListener(MinecraftForge.EVENT_BUS, PlayerEvent.PlayerLoggedInEvent.class, event -> SupportManager.INSTANCE.sync((ServerPlayer) event.getEntity()));
-        EventBusHelper.addListener(MinecraftForge.EVENT_BUS, ServerStartedEvent.class, event -> SupportManager.INSTANCE.loadFromRemote());
+        EventBusHelper.addListener(MinecraftForge.EVENT_BUS, ServerStartedEvent.class, event -> SupportManager.INSTANCE.load(event.getServer()));
+
+        EventBusHelper.addListener(MinecraftForge.EVENT_BUS, ServerStoppedEvent.class, event -> {
+            PacketQueue.SERVER.clear();
+            PacketBatcher.clearAllToClients();
+            BlockEntitySyncScheduler.clear();
+            PacketBuffers.logStatistics();
+        });
+
+        EventBusHelper.addListener(MinecraftForge.EVENT_BUS, TickEvent.ServerTickEvent.class, event -> {
+            if(event.phase != TickEvent.Phase.END)
+                return;
+
+            PacketQueue.SERVER.drain();
+            BlockEntitySyncScheduler.flush();
+            PacketBatcher.flushAllToClients();
+        });
+
+        EventBusHelper.addListener(MinecraftForge.EVENT_BUS, ChunkEvent.Load.class, event -> {
+            if(event.getLevel() instanceof ServerLevel level && event.getChunk() instanceof LevelChunk chunk)
+                LootTableBlockEntityComponent.onChunkLoad(level, chunk);
+        });
     }
 
     @Override
@@ -3,6 +3,7 @@ package xyz.apex.minecraft.apexcore.mcforge.core;
 import net.minecraftforge.fml.common.Mod;
 import org.jetbrains.annotations.ApiStatus;
 import xyz.apex.minecraft.apexcore.common.core.ApexCore;
+import xyz.apex.minecraft.apexcore.common.core.CoreServices;
 
 @Mod(ApexCore.ID)
 @ApiStatus.Internal
@@ -10,6 +11,7 @@ public final class ApexCoreMinecraftForgeEP
 {
     public ApexCoreMinecraftForgeEP()
     {
+        CoreServices.validate();
         ApexCore.INSTANCE.bootstrap();
     }
 }
@@ -2,11 +2,13 @@ package xyz.apex.minecraft.apexcore.mcforge.lib.modloader;
 
 import com.google.common.collect.ImmutableMap;
 import net.minecraftforge.fml.ModList;
+import net.minecraftforge.fml.loading.FMLPaths;
 import net.minecraftforge.versions.forge.ForgeVersion;
 import org.jetbrains.annotations.ApiStatus;
 import xyz.apex.minecraft.apexcore.common.lib.modloader.Mod;
 import xyz.apex.minecraft.apexcore.common.lib.modloader.ModLoader;
 
+import java.nio.file.Path;
 import java.util.*;
 
 @ApiStatus.Internal
@@ -77,4 +79,10 @@ public final class ModLoaderImpl implements ModLoader
     {
         return modsView;
     }
+
+    @Override
+    public Path gameDirectory()
+    {
+        return FMLPaths.GAMEDIR.get();
+    }
 }
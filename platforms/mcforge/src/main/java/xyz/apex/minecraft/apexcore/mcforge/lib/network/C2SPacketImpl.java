@@ -10,9 +10,9 @@ final class C2SPacketImpl<T> extends PacketImpl<T> implements C2SPacket<T>
 {
     private final Supplier<Supplier<Handler<T>>> handler;
 
-    C2SPacketImpl(NetworkManagerImpl manager, String packetKey, NetworkManager.Encoder<T> encoder, NetworkManager.Decoder<T> decoder, Supplier<Supplier<Handler<T>>> handler)
+    C2SPacketImpl(NetworkManagerImpl manager, int index, String packetKey, NetworkManager.Encoder<T> encoder, NetworkManager.Decoder<T> decoder, Supplier<Supplier<Handler<T>>> handler)
     {
-        super(manager, packetKey, encoder, decoder);
+        super(manager, index, packetKey, encoder, decoder);
 
         this.handler = handler;
     }
@@ -26,6 +26,9 @@ final class C2SPacketImpl<T> extends PacketImpl<T> implements C2SPacket<T>
     @Override
     public void sendToServer(T packet)
     {
-        manager.channel.send(new NetworkManagerImpl.DummyPacket<>(this, packet, true), PacketDistributor.SERVER.noArg());
+        if(manager.batcher != null && manager.batcher.queue(this, packet))
+            return;
+
+        manager.channel.send(new NetworkManagerImpl.DummyPacket<>(this, packet), PacketDistributor.SERVER.noArg());
     }
 }
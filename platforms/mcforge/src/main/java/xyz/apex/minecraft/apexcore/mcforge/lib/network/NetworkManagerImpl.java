@@ -1,21 +1,27 @@
 package xyz.apex.minecraft.apexcore.mcforge.lib.network;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import net.minecraft.client.Minecraft;
 import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.chat.Component;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerPlayer;
 import net.minecraftforge.event.network.CustomPayloadEvent;
 import net.minecraftforge.network.Channel;
 import net.minecraftforge.network.ChannelBuilder;
 import net.minecraftforge.network.SimpleChannel;
 import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
 import xyz.apex.minecraft.apexcore.common.core.ApexCore;
 import xyz.apex.minecraft.apexcore.common.lib.PhysicalSide;
 import xyz.apex.minecraft.apexcore.common.lib.network.C2SPacket;
 import xyz.apex.minecraft.apexcore.common.lib.network.NetworkManager;
-import xyz.apex.minecraft.apexcore.common.lib.network.Packet;
+import xyz.apex.minecraft.apexcore.common.lib.network.PacketBatcher;
+import xyz.apex.minecraft.apexcore.common.lib.network.PacketQueue;
 import xyz.apex.minecraft.apexcore.common.lib.network.S2CPacket;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.Supplier;
@@ -23,18 +29,29 @@ import java.util.function.Supplier;
 @ApiStatus.Internal
 public final class NetworkManagerImpl implements NetworkManager
 {
-    private static final Map<String, NetworkManager> MAP = Maps.newConcurrentMap();
-    private static final int VERSION = 2;
+    private static final Map<String, NetworkManagerImpl> MAP = Maps.newConcurrentMap();
+    // 3 - packets are identified by a varint index rather than owner & packet key strings
+    // 4 - support sync sends versioned deltas with bitmask encoded levels
+    // 5 - block entity sync packet
+    // 6 - bundled packets are identified by their varint index
+    private static final int VERSION = 6;
 
     private final String ownerId;
     private final Map<String, C2SPacketImpl<?>> client2ServerPackets = Maps.newHashMap();
     private final Map<String, S2CPacketImpl<?>> server2ClientPackets = Maps.newHashMap();
+    @Nullable PacketBatcher batcher = null;
+    // every packet in registration order, index into this list is the packets network id
+    private final List<PacketImpl<?>> packets = Lists.newArrayList();
     public final SimpleChannel channel;
+    // always registered first, so both sides agree on its id regardless of what else gets registered
+    private final S2CPacket<Integer> packetTable;
 
     private NetworkManagerImpl(String ownerId)
     {
         this.ownerId = ownerId;
 
+        // each manager owns its own channel
+        // so the owner id never needs to be written, bind the decoder to this manager instead
         channel = ChannelBuilder
                 .named(new ResourceLocation(ownerId, "network"))
                 .networkProtocolVersion(VERSION)
@@ -43,9 +60,11 @@ public final class NetworkManagerImpl implements NetworkManager
 
                 .messageBuilder(DummyPacket.class)
                     .encoder(DummyPacket::encode)
-                    .decoder(DummyPacket::new)
+                    .decoder(buffer -> new DummyPacket<>(this, buffer))
                     .consumerNetworkThread((SimpleChannel.MessageBuilder.ToBooleanBiFunction<DummyPacket, CustomPayloadEvent.Context>) DummyPacket::consume)
                 .add();
+
+        packetTable = registerClientBound("internal/packet_table", (hash, buffer) -> buffer.writeInt(hash), FriendlyByteBuf::readInt, () -> () -> NetworkManagerImpl::verifyPacketTable);
     }
 
     @Override
@@ -54,12 +73,23 @@ public final class NetworkManagerImpl implements NetworkManager
         return ownerId;
     }
 
+    @Override
+    public NetworkManager enableBatching()
+    {
+        if(batcher == null)
+            // packet table verifies the indices bundles rely on, must never be sent within one
+            batcher = new PacketBatcher(this, packet -> ((PacketImpl<?>) packet).index, this::packet, packetTable);
+
+        return this;
+    }
+
     @Override
     public <T> C2SPacket<T> registerServerBound(String packetKey, Encoder<T> encoder, Decoder<T> decoder, Supplier<Supplier<C2SPacket.Handler<T>>> handler)
     {
-        var packet = new C2SPacketImpl<>(this, packetKey, encoder, decoder, handler);
+        var packet = new C2SPacketImpl<>(this, packets.size(), packetKey, encoder, decoder, handler);
         if(client2ServerPackets.put(packetKey, packet) != null)
             throw new IllegalStateException("Attempt to register C2S packet with duplicate id: '%s:%s'".formatted(ownerId, packetKey));
+        packets.add(packet);
         ApexCore.LOGGER.debug("[{}] Registering C2S Network Packet: {}", ownerId, packetKey);
         return packet;
     }
@@ -67,67 +97,114 @@ public final class NetworkManagerImpl implements NetworkManager
     @Override
     public <T> S2CPacket<T> registerClientBound(String packetKey, Encoder<T> encoder, Decoder<T> decoder, Supplier<Supplier<S2CPacket.Handler<T>>> handler)
     {
-        var packet = new S2CPacketImpl<>(this, packetKey, encoder, decoder, handler);
+        var packet = new S2CPacketImpl<>(this, packets.size(), packetKey, encoder, decoder, handler);
         if(server2ClientPackets.put(packetKey, packet) != null)
             throw new IllegalStateException("Attempt to register S2C packet with duplicate id: '%s:%s'".formatted(ownerId, packetKey));
+        packets.add(packet);
         ApexCore.LOGGER.debug("[{}] Registering S2C Network Packet: {}", ownerId, packetKey);
         return packet;
     }
 
+    private PacketImpl<?> packet(int index)
+    {
+        if(index < 0 || index >= packets.size())
+            throw new IllegalStateException("Received unknown packet id: '%s:%d'".formatted(ownerId, index));
+        return packets.get(index);
+    }
+
+    // hash of every packet key in registration order
+    // both sides must have registered the exact same packets in the exact same order for ids to match
+    private int packetTableHash()
+    {
+        var hash = 1;
+
+        for(var packet : packets)
+        {
+            hash = 31 * hash + (packet instanceof C2SPacket<?> ? 1 : 2);
+            hash = 31 * hash + packet.packetId().hashCode();
+        }
+
+        return hash;
+    }
+
+    private static void verifyPacketTable(Minecraft client, NetworkManager manager, Integer hash)
+    {
+        var ownerId = manager.getOwnerId();
+
+        if(((NetworkManagerImpl) manager).packetTableHash() == hash)
+        {
+            ApexCore.LOGGER.debug("[{}] Network packet table verified", ownerId);
+            return;
+        }
+
+        ApexCore.LOGGER.error("[{}] Network packet table mismatch, client and server have registered different packets", ownerId);
+        var connection = client.getConnection();
+
+        if(connection != null)
+            connection.getConnection().disconnect(Component.literal("Network packet table mismatch for '%s', client and server have registered different packets".formatted(ownerId)));
+    }
+
     public static NetworkManager getOrCreate(String ownerId)
     {
         return MAP.computeIfAbsent(ownerId, NetworkManagerImpl::new);
     }
 
-    @SuppressWarnings({"unchecked", "SuspiciousMethodCalls"})
+    public static void syncPacketTables(ServerPlayer player)
+    {
+        MAP.values().forEach(manager -> manager.packetTable.sendToClient(player, manager.packetTableHash()));
+    }
+
+    @SuppressWarnings("unchecked")
     static final class DummyPacket<T>
     {
-        private final boolean client2server;
-        private final Packet<T> packet;
+        private final PacketImpl<T> packet;
         private final T packetData;
 
-        DummyPacket(Packet<T> packet, T packetData, boolean client2server)
+        DummyPacket(PacketImpl<T> packet, T packetData)
         {
-            this.client2server = client2server;
             this.packet = packet;
             this.packetData = packetData;
         }
 
-        private DummyPacket(FriendlyByteBuf buffer)
+        private DummyPacket(NetworkManagerImpl manager, FriendlyByteBuf buffer)
         {
-            client2server = buffer.readBoolean();
-            var networkManager = (NetworkManagerImpl) getOrCreate(buffer.readUtf());
-            var packetId = buffer.readUtf();
-            packet = (Packet<T>) (client2server ? networkManager.client2ServerPackets : networkManager.server2ClientPackets).get(packetId);
+            packet = (PacketImpl<T>) manager.packet(buffer.readVarInt());
             packetData = packet.decoder().decode(buffer);
         }
 
         private void encode(FriendlyByteBuf buffer)
         {
-            buffer.writeBoolean(client2server);
-            buffer.writeUtf(packet.manager().getOwnerId());
-            buffer.writeUtf(packet.packetId().getPath()); // TODO: change packet id to be a String
+            buffer.writeVarInt(packet.index);
             packet.encoder().encode(packetData, buffer);
         }
 
         private boolean consume(CustomPayloadEvent.Context context)
         {
-            context.enqueueWork(() -> {
-                var manager = packet.manager();
-
-                if(client2server)
-                {
-                    var sender = Objects.requireNonNull(context.getSender());
-                    ((C2SPacket<T>) packet).handler().handle(sender.server, manager, sender, packetData);
-                }
-                else
-                {
-                    PhysicalSide.CLIENT.runWhenOn(() -> () -> {
-                        var client = Minecraft.getInstance();
-                        ((S2CPacket<T>) packet).handler().handle(client, manager, packetData);
-                    });
-                }
-            });
+            var client2server = packet instanceof C2SPacket<?>;
+
+            // received on the wrong side, only possible with a mismatched packet table
+            if(client2server != (context.getSender() != null))
+                return false;
+
+            var manager = packet.manager();
+
+            // handled on the main thread, drained at the end of each tick
+            if(client2server)
+            {
+                var sender = Objects.requireNonNull(context.getSender());
+
+                PacketQueue.SERVER.enqueue(packet, sender.getUUID(), packetData, () -> {
+                    if(!sender.hasDisconnected())
+                        ((C2SPacket<T>) packet).handler().handle(sender.server, manager, sender, packetData);
+                });
+            }
+            else
+            {
+                PhysicalSide.CLIENT.runWhenOn(() -> () -> PacketQueue.CLIENT.enqueue(packet, null, packetData, () -> {
+                    var client = Minecraft.getInstance();
+                    ((S2CPacket<T>) packet).handler().handle(client, manager, packetData);
+                }));
+            }
 
             return true;
         }
@@ -8,12 +8,15 @@ abstract class PacketImpl<T> implements Packet<T>
 {
     protected final NetworkManagerImpl manager;
     private final ResourceLocation packetId;
+    // network id, registration order within the owning manager
+    final int index;
     private final NetworkManager.Encoder<T> encoder;
     private final NetworkManager.Decoder<T> decoder;
 
-    protected PacketImpl(NetworkManagerImpl manager, String packetKey, NetworkManager.Encoder<T> encoder, NetworkManager.Decoder<T> decoder)
+    protected PacketImpl(NetworkManagerImpl manager, int index, String packetKey, NetworkManager.Encoder<T> encoder, NetworkManager.Decoder<T> decoder)
     {
         this.manager = manager;
+        this.index = index;
         this.encoder = encoder;
         this.decoder = decoder;
 
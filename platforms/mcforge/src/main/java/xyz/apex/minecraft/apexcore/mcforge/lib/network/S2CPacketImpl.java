@@ -1,6 +1,10 @@
 package xyz.apex.minecraft.apexcore.mcforge.lib.network;
 
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.chunk.LevelChunk;
 import net.minecraftforge.network.PacketDistributor;
 import xyz.apex.minecraft.apexcore.common.lib.network.NetworkManager;
 import xyz.apex.minecraft.apexcore.common.lib.network.S2CPacket;
@@ -11,9 +15,9 @@ final class S2CPacketImpl<T> extends PacketImpl<T> implements S2CPacket<T>
 {
     private final Supplier<Supplier<Handler<T>>> handler;
 
-    S2CPacketImpl(NetworkManagerImpl manager, String packetKey, NetworkManager.Encoder<T> encoder, NetworkManager.Decoder<T> decoder, Supplier<Supplier<Handler<T>>> handler)
+    S2CPacketImpl(NetworkManagerImpl manager, int index, String packetKey, NetworkManager.Encoder<T> encoder, NetworkManager.Decoder<T> decoder, Supplier<Supplier<Handler<T>>> handler)
     {
-        super(manager, packetKey, encoder, decoder);
+        super(manager, index, packetKey, encoder, decoder);
 
         this.handler = handler;
     }
@@ -27,6 +31,53 @@ final class S2CPacketImpl<T> extends PacketImpl<T> implements S2CPacket<T>
     @Override
     public void sendToClient(ServerPlayer player, T packet)
     {
-        manager.channel.send(new NetworkManagerImpl.DummyPacket<>(this, packet, false), PacketDistributor.PLAYER.with(player));
+        if(manager.batcher != null && manager.batcher.queue(player, this, packet))
+            return;
+
+        manager.channel.send(new NetworkManagerImpl.DummyPacket<>(this, packet), PacketDistributor.PLAYER.with(player));
+    }
+
+    // forge encodes the message once per distributor, sharing it between every target connection
+
+    @Override
+    public void sendToAllClients(MinecraftServer server, T packet)
+    {
+        flushBeforeBroadcast();
+        manager.channel.send(new NetworkManagerImpl.DummyPacket<>(this, packet), PacketDistributor.ALL.noArg());
+    }
+
+    @Override
+    public void sendToClientsIn(ServerLevel level, T packet)
+    {
+        flushBeforeBroadcast();
+        manager.channel.send(new NetworkManagerImpl.DummyPacket<>(this, packet), PacketDistributor.DIMENSION.with(level.dimension()));
+    }
+
+    @Override
+    public void sendToClientsTracking(LevelChunk chunk, T packet)
+    {
+        flushBeforeBroadcast();
+        manager.channel.send(new NetworkManagerImpl.DummyPacket<>(this, packet), PacketDistributor.TRACKING_CHUNK.with(chunk));
+    }
+
+    @Override
+    public void sendToClientsTracking(Entity entity, T packet)
+    {
+        flushBeforeBroadcast();
+        manager.channel.send(new NetworkManagerImpl.DummyPacket<>(this, packet), PacketDistributor.TRACKING_ENTITY.with(entity));
+    }
+
+    @Override
+    public void sendToClientsNear(ServerLevel level, double x, double y, double z, double radius, T packet)
+    {
+        flushBeforeBroadcast();
+        manager.channel.send(new NetworkManagerImpl.DummyPacket<>(this, packet), PacketDistributor.NEAR.with(new PacketDistributor.TargetPoint(x, y, z, radius, level.dimension())));
+    }
+
+    // broadcasts are never batched, send whatever is pending first to keep per player ordering
+    private void flushBeforeBroadcast()
+    {
+        if(manager.batcher != null)
+            manager.batcher.flushBeforeBroadcast();
     }
 }